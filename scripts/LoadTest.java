@@ -0,0 +1,207 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency scaling of service-a with platform-thread vs. virtual-thread request handling.
+ *
+ * <pre>
+ *   (cd service-a && mvn package -DskipTests)
+ *   java scripts/LoadTest.java [--latency-ms 300] [--levels 50,200,800] [--requests-per-client 5]
+ * </pre>
+ *
+ * <p>An in-process stub stands in for CBAR and answers every document request with the recorded
+ * fixture after a fixed delay, so each cache miss blocks its request the way a real CBAR call does.
+ * service-a is started once per mode, offline and with quiet logging, and every request asks for a
+ * date not yet cached. At each concurrency level, that many clients send requests back to back; the
+ * table reports throughput, latency percentiles and failures.</p>
+ *
+ * <p>With the platform-thread pool, throughput stops growing once every Tomcat worker
+ * ({@code --tomcat-threads}, default 200) is blocked on CBAR; with virtual threads it keeps
+ * scaling with the number of clients until CPU or the database bulkhead limits it.</p>
+ */
+public class LoadTest {
+
+    private static final int STUB_PORT = 18089;
+    private static final int SERVICE_PORT = 8081;
+
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = Long.parseLong(option(args, "--latency-ms", "300"));
+        int[] levels = Arrays.stream(option(args, "--levels", "50,200,800").split(",")).mapToInt(Integer::parseInt).toArray();
+        int requestsPerClient = Integer.parseInt(option(args, "--requests-per-client", "5"));
+        int tomcatThreads = Integer.parseInt(option(args, "--tomcat-threads", "200"));
+        Path root = Path.of(option(args, "--root", ".")).toAbsolutePath().normalize();
+        Path jar = root.resolve("service-a/target/service-a-0.0.1-SNAPSHOT.jar");
+        byte[] document = Files.readAllBytes(root.resolve("service-a/src/test/resources/cbar/15.01.2024.xml"));
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found; build service-a first");
+        }
+
+        HttpServer stub = startCbarStub(document, latencyMillis);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        System.out.printf("CBAR latency %d ms, Tomcat worker pool %d threads%n%n", latencyMillis, tomcatThreads);
+        System.out.printf("%-9s %6s %9s %10s %8s %8s %8s %7s%n",
+                "mode", "conc", "requests", "req/s", "p50_ms", "p99_ms", "max_ms", "errors");
+        try {
+            for (boolean virtual : new boolean[] {false, true}) {
+                Process service = startService(jar, root, virtual, tomcatThreads);
+                try {
+                    awaitHealthy(client, service);
+                    AtomicInteger dates = new AtomicInteger();
+                    for (int level : levels) {
+                        run(client, virtual ? "virtual" : "platform", level, requestsPerClient, dates);
+                    }
+                } finally {
+                    service.destroy();
+                    service.waitFor(30, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private static HttpServer startCbarStub(byte[] document, long latencyMillis) throws IOException {
+        // Without TCP_NODELAY the separate header and body writes stall on delayed ACKs
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", STUB_PORT), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/currencies/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+            exchange.sendResponseHeaders(200, document.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(document);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static Process startService(Path jar, Path root, boolean virtual, int tomcatThreads) throws IOException {
+        Path log = root.resolve("service-a/target/load-test-" + (virtual ? "virtual" : "platform") + ".log");
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString(),
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--server.tomcat.threads.min-spare=" + Math.min(10, tomcatThreads),
+                "--server.tomcat.accept-count=10000",
+                "--rates.providers=cbar",
+                "--rates.provider.cbar.base-url=http://localhost:" + STUB_PORT + "/currencies",
+                "--cbar.http.max-concurrent=100000",
+                "--cbar.prewarm.enabled=false",
+                "--cache.store.enabled=false",
+                "--cbar.archive.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        return new ProcessBuilder(command)
+                .directory(root.resolve("service-a/target").toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitHealthy(HttpClient client, Process service) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + SERVICE_PORT + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(180);
+        while (System.nanoTime() < deadline) {
+            if (!service.isAlive()) {
+                throw new IllegalStateException("service-a exited with " + service.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("service-a did not become healthy");
+    }
+
+    /**
+     * {@code concurrency} clients, each sending {@code requestsPerClient} requests for uncached dates back to back
+     */
+    private static void run(HttpClient client, String mode, int concurrency, int requestsPerClient,
+                            AtomicInteger dates) throws InterruptedException {
+        int total = concurrency * requestsPerClient;
+        long[] latencies = new long[total];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        LocalDate newest = LocalDate.now().minusDays(1);
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        LocalDate date = newest.minusDays(dates.getAndIncrement());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                "http://localhost:" + SERVICE_PORT + "/currencies?date=" + date))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - sent;
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %6d %9d %10.0f %8d %8d %8d %7d%n", mode, concurrency, total, total / seconds,
+                millis(latencies, 0.50), millis(latencies, 0.99), TimeUnit.NANOSECONDS.toMillis(latencies[total - 1]),
+                errors.get());
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        return TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(percentile * sorted.length) - 1]);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,103 @@
+#!/usr/bin/env bash
+#
+# Measure startup time and resident memory of a service in each launch mode.
+#
+#   scripts/measure-startup.sh <service-a|service-b> [jar|aot|native ...]
+#
+# Build first from the service directory:
+#   jar     mvn package                     target/<service>-0.0.1-SNAPSHOT.jar
+#   aot     mvn -Paot package               target/aot/ (AOT-processed jar + CDS archive)
+#   native  mvn -Pnative native:compile     target/<service> (GraalVM native image)
+#
+# Each mode is started RUNS times (default 5). Startup is the wall time from launch until the
+# service answers HTTP, and the time Spring reports in its "Started ... in" line; RSS is read
+# from /proc after the first response. Medians are printed per mode.
+#
+# APP_ARGS is appended to the command line. service-a defaults to running offline (no prewarm,
+# no durable store or archive); service-b needs its MySQL database, or a JDBC URL in APP_ARGS.
+
+set -euo pipefail
+
+SERVICE=${1:?usage: $0 <service-a|service-b> [jar|aot|native ...]}
+shift
+if (( $# )); then MODES=("$@"); else MODES=(jar aot native); fi
+RUNS=${RUNS:-5}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TARGET=$ROOT/$SERVICE/target
+JAR=$SERVICE-0.0.1-SNAPSHOT.jar
+
+case $SERVICE in
+  service-a)
+    URL=http://localhost:8081/actuator/health
+    DEFAULT_ARGS="--cbar.prewarm.enabled=false --cache.store.enabled=false --cbar.archive.enabled=false"
+    ;;
+  service-b)
+    URL=http://localhost:8082/api/health
+    DEFAULT_ARGS=""
+    ;;
+  *)
+    echo "Unknown service: $SERVICE" >&2
+    exit 1
+    ;;
+esac
+ARGS=${APP_ARGS:-$DEFAULT_ARGS}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR) printf "%d\n", (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Runs in a command substitution, so the cd stays local; the background job is the service itself
+launch() {
+  local mode=$1 log=$2 dir command
+  case $mode in
+    jar)    dir=$TARGET;     command=("$JAVA" -jar "$JAR") ;;
+    aot)    dir=$TARGET/aot; command=("$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$JAR") ;;
+    native) dir=$TARGET;     command=("./$SERVICE") ;;
+  esac
+  cd "$dir"
+  "${command[@]}" $ARGS > "$log" 2>&1 &
+  echo $!
+}
+
+artifact() {
+  case $1 in
+    jar)    echo "$TARGET/$JAR" ;;
+    aot)    echo "$TARGET/aot/application.jsa" ;;
+    native) echo "$TARGET/$SERVICE" ;;
+  esac
+}
+
+printf '%-8s %4s %12s %12s %10s\n' mode run wall_ms spring_ms rss_mb
+for mode in "${MODES[@]}"; do
+  if [[ ! -e $(artifact "$mode") ]]; then
+    echo "$mode: $(artifact "$mode") not built, skipping" >&2
+    continue
+  fi
+  walls=() springs=() rss=()
+  for run in $(seq 1 "$RUNS"); do
+    log=$(mktemp)
+    start=$(date +%s%N)
+    pid=$(launch "$mode" "$log")
+    until curl -s -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode: process exited before answering, see $log" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    wall=$(( ($(date +%s%N) - start) / 1000000 ))
+    spring=$(grep -o 'Started .* in [0-9.]* seconds' "$log" | grep -o '[0-9.]* seconds' | awk '{ printf "%d", $1 * 1000 }')
+    mem=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+    kill "$pid"
+    while kill -0 "$pid" 2>/dev/null; do sleep 0.05; done
+    rm -f "$log"
+    printf '%-8s %4d %12d %12s %10d\n' "$mode" "$run" "$wall" "${spring:--}" "$mem"
+    walls+=("$wall") springs+=("${spring:-0}") rss+=("$mem")
+  done
+  printf '%-8s %4s %12s %12s %10s\n' "$mode" median \
+    "$(printf '%s\n' "${walls[@]}" | median)" \
+    "$(printf '%s\n' "${springs[@]}" | median)" \
+    "$(printf '%s\n' "${rss[@]}" | median)"
+done
@@ -0,0 +1,298 @@
+package com.example.servicea.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Outbound HTTP client for cbar.az. Built on the JDK client, which keeps connections alive,
+ * pools them and negotiates HTTP/2. Every call has one deadline covering connect, headers and
+ * body of all its attempts and the backoff between them; transport failures and 429/5xx responses
+ * are retried with jittered backoff while the remaining budget allows, and bodies larger than the
+ * configured limit are rejected.
+ *
+ * <p>A permit limit caps concurrent calls; waiting for a permit is counted as saturation.</p>
+ */
+@Component
+public class CbarHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CbarHttpClient.class);
+
+    /**
+     * Consumes a response; the body must not be used after the handler returns
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<T> {
+        T handle(int status, HttpHeaders headers, InputStream body) throws IOException;
+    }
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final long maxResponseBytes;
+    private final long acquireTimeoutMillis;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong saturated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    public CbarHttpClient(@Value("${cbar.http.connect-timeout-ms:3000}") long connectTimeoutMillis,
+                          @Value("${cbar.http.request-timeout-ms:10000}") long requestTimeoutMillis,
+                          @Value("${cbar.http.max-retries:2}") int maxRetries,
+                          @Value("${cbar.http.retry-backoff-ms:250}") long retryBackoffMillis,
+                          @Value("${cbar.http.max-response-bytes:2097152}") long maxResponseBytes,
+                          @Value("${cbar.http.max-concurrent:16}") int maxConcurrent,
+                          @Value("${cbar.http.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxResponseBytes = maxResponseBytes;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Send a GET and hand the response to the handler, retrying transport failures and retryable statuses
+     */
+    public <T> T get(String url, Map<String, String> headers, ResponseHandler<T> handler) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).GET();
+        headers.forEach(builder::header);
+        HttpRequest request = builder.build();
+
+        acquirePermit(url);
+        long start = System.nanoTime();
+        try {
+            requests.incrementAndGet();
+            return send(request, handler);
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            totalLatencyNanos.addAndGet(elapsed);
+            maxLatencyNanos.accumulate(elapsed);
+            permits.release();
+        }
+    }
+
+    private <T> T send(HttpRequest request, ResponseHandler<T> handler) throws IOException {
+        // One deadline for the whole call, so retries cannot stretch it to a multiple of the timeout
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        long backoff = retryBackoffMillis;
+        for (int attempt = 0; ; attempt++) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw timeout();
+            }
+            HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                    .timeout(Duration.ofNanos(remaining))
+                    .build();
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(timed, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (IOException e) {
+                long delay = retryDelay(attempt, backoff, deadline);
+                if (delay < 0) {
+                    throw e;
+                }
+                log.warn("CBAR request {} failed (attempt {}): {}", request.uri(), attempt + 1, e.toString());
+                pause(delay);
+                backoff *= 2;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while calling " + request.uri(), e);
+            }
+
+            int status = response.statusCode();
+            if (status == 429 || status >= 500) {
+                long delay = retryDelay(attempt, backoff, deadline);
+                if (delay >= 0) {
+                    response.body().close();
+                    log.warn("CBAR request {} returned HTTP {} (attempt {})", request.uri(), status, attempt + 1);
+                    pause(delay);
+                    backoff *= 2;
+                    continue;
+                }
+            }
+
+            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (contentLength > maxResponseBytes) {
+                response.body().close();
+                throw new IOException("CBAR response of " + contentLength + " bytes exceeds the limit of " + maxResponseBytes);
+            }
+
+            try (BoundedBody body = new BoundedBody(response.body(), deadline)) {
+                return handler.handle(status, response.headers(), body);
+            }
+        }
+    }
+
+    private void acquirePermit(String url) throws IOException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        saturated.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new IOException("CBAR client saturated, no permit for " + url + " within " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a CBAR client permit", e);
+        }
+    }
+
+    /**
+     * Jittered backoff before the next attempt in milliseconds, or -1 when no retry is left or the
+     * backoff would not leave any of the budget for the attempt itself
+     */
+    private long retryDelay(int attempt, long backoff, long deadline) {
+        if (attempt >= maxRetries) {
+            return -1;
+        }
+        long delay = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return TimeUnit.MILLISECONDS.toNanos(delay) < deadline - System.nanoTime() ? delay : -1;
+    }
+
+    private void pause(long delayMillis) throws IOException {
+        retries.incrementAndGet();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while backing off", e);
+        }
+    }
+
+    private HttpTimeoutException timeout() {
+        return new HttpTimeoutException("CBAR response not received within " + requestTimeout.toMillis() + " ms");
+    }
+
+    /**
+     * Client metrics: call counts, saturation and latency
+     */
+    public Map<String, Object> getStats() {
+        long count = requests.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", count);
+        stats.put("failures", failures.get());
+        stats.put("retries", retries.get());
+        stats.put("inFlight", maxConcurrent - permits.availablePermits());
+        stats.put("saturatedWaits", saturated.get());
+        stats.put("rejected", rejected.get());
+        stats.put("avgLatencyMs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / count));
+        stats.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+        return stats;
+    }
+
+    /**
+     * Response body that enforces the size limit and the call deadline. The deadline is enforced
+     * by a watchdog that closes the stream, which also unblocks a read stalled on the network.
+     */
+    private final class BoundedBody extends FilterInputStream {
+
+        private final CompletableFuture<Void> watchdog;
+        private long read;
+        private volatile boolean expired;
+
+        private BoundedBody(InputStream body, long deadlineNanos) {
+            super(body);
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            this.watchdog = CompletableFuture.runAsync(this::expire,
+                    CompletableFuture.delayedExecutor(remaining, TimeUnit.NANOSECONDS));
+        }
+
+        private void expire() {
+            expired = true;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // the reader sees the expiry instead
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException e) {
+                throw expired ? timeout() : e;
+            }
+            if (expired) {
+                throw timeout();
+            }
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                throw expired ? timeout() : e;
+            }
+            if (expired) {
+                throw timeout();
+            }
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > maxResponseBytes) {
+                throw new IOException("CBAR response exceeds the limit of " + maxResponseBytes + " bytes");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            watchdog.cancel(false);
+            super.close();
+        }
+    }
+}
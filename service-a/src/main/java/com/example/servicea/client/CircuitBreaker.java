@@ -0,0 +1,114 @@
+package com.example.servicea.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the CBAR upstream. After a run of consecutive failures it opens and
+ * rejects calls without touching the network; once the open period has passed a single trial
+ * call is let through, and its outcome closes or re-opens the breaker. A trial that is cancelled
+ * or never reports back within the trial timeout makes room for another one.
+ */
+@Component
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long trialTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicLong trialStartedAt = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public CircuitBreaker(@Value("${cbar.breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${cbar.breaker.open-ms:30000}") long openMillis,
+                          @Value("${cbar.breaker.trial-timeout-ms:60000}") long trialTimeoutMillis) {
+        this(failureThreshold, openMillis, trialTimeoutMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, long trialTimeoutMillis, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.trialTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(trialTimeoutMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Whether a call may go out now; a caller that gets true must report its outcome
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        if (current == State.OPEN && now - openedAt.get() >= openNanos) {
+            trialStartedAt.set(now);
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                log.info("CBAR circuit breaker half-open, letting a trial call through");
+                return true;
+            }
+        }
+        // A trial that never reported back must not keep the breaker half-open for good
+        long trialStart = trialStartedAt.get();
+        if (current == State.HALF_OPEN && now - trialStart >= trialTimeoutNanos
+                && trialStartedAt.compareAndSet(trialStart, now)) {
+            log.warn("CBAR circuit breaker trial call did not report back, letting another through");
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("CBAR circuit breaker closed");
+        }
+    }
+
+    public void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt.set(nanoClock.getAsLong());
+            if (state.compareAndSet(current, State.OPEN)) {
+                log.warn("CBAR circuit breaker opened after {} consecutive failures", failures);
+            }
+        }
+    }
+
+    /**
+     * The call was abandoned before CBAR answered; a half-open trial is released without counting a failure
+     */
+    public void onCancelled() {
+        if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+            log.info("CBAR circuit breaker trial call cancelled, next call is a new trial");
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.servicea.config;
+
+import com.example.servicea.model.BackfillJob;
+import com.example.servicea.model.BatchRateResponse;
+import com.example.servicea.model.CachedCurrency;
+import com.example.servicea.model.CbarResponse;
+import com.example.servicea.model.CrossRateMatrix;
+import com.example.servicea.model.CrossRateResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateEvent;
+import com.example.servicea.model.RateRequest;
+import com.example.servicea.model.RateResponse;
+import com.example.servicea.model.RetentionReport;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for AOT and native-image builds. Spring infers binding hints for controller
+ * signatures only; these types are also (de)serialized by Jackson outside of them, through the
+ * CBAR XML binding, the pre-encoded snapshot bodies, the event stream and {@code Map} responses.
+ * The JPA entity is listed too, as Hibernate reads and writes its fields reflectively.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                CbarResponse.class, CbarResponse.ValType.class, CbarResponse.Valute.class,
+                Currency.class, CachedCurrency.class, RateRequest.class, RateResponse.class,
+                BatchRateResponse.class, CrossRateResponse.class, CrossRateMatrix.class,
+                RateEvent.class, RetentionReport.class, BackfillJob.class);
+    }
+}
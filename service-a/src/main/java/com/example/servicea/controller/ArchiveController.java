@@ -0,0 +1,43 @@
+package com.example.servicea.controller;
+
+import com.example.servicea.service.CbarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/currencies/archive")
+public class ArchiveController {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveController.class);
+
+    private final CbarService cbarService;
+
+    public ArchiveController(CbarService cbarService) {
+        this.cbarService = cbarService;
+    }
+
+    @PostMapping("/reingest")
+    public ResponseEntity<?> reingest(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+
+        try {
+            if (from.isAfter(to)) {
+                return ResponseEntity.badRequest().body(Map.of("message", "'from' must not be after 'to'"));
+            }
+            log.info("Re-ingesting archived CBAR documents from {} to {}", from, to);
+            int reingested = cbarService.reingestFromArchive(from, to);
+            return ResponseEntity.ok(Map.of("from", from, "to", to, "reingestedDates", reingested));
+
+        } catch (Exception e) {
+            log.error("Error re-ingesting archived CBAR documents: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.servicea.controller;
+
+import com.example.servicea.model.BackfillJob;
+import com.example.servicea.service.BackfillService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/currencies/backfill")
+public class BackfillController {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillController.class);
+
+    private final BackfillService backfillService;
+
+    public BackfillController(BackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> startBackfill(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+
+        try {
+            log.info("Received backfill request from {} to {}", from, to);
+            BackfillJob job = backfillService.startBackfill(from, to);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Collection<BackfillJob>> getJobs() {
+        return ResponseEntity.ok(backfillService.getJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackfillJob> getJob(@PathVariable String jobId) {
+        return backfillService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String jobId) {
+        try {
+            log.info("Resuming backfill job {}", jobId);
+            return backfillService.resume(jobId)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
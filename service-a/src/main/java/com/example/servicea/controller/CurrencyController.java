@@ -1,19 +1,44 @@
 package com.example.servicea.controller;
 
+import com.example.servicea.exception.CbarUnavailableException;
+import com.example.servicea.model.BatchRateResponse;
+import com.example.servicea.model.CrossRateMatrix;
 import com.example.servicea.model.Currency;
+import com.example.servicea.model.DatedRates;
+import com.example.servicea.model.EncodedResponse;
+import com.example.servicea.model.RateRequest;
+import com.example.servicea.model.RetentionReport;
+import com.example.servicea.service.BatchRateService;
 import com.example.servicea.service.CbarService;
+import com.example.servicea.service.CrossRateService;
 import com.example.servicea.service.CurrencyCacheService;
+import com.example.servicea.service.DatabaseBulkhead;
+import com.example.servicea.service.HttpCachePolicy;
 import com.example.servicea.service.CacheCleanupService;
+import com.example.servicea.service.RateMetrics;
+import com.example.servicea.service.RateSeriesService;
+import com.example.servicea.service.RateStreamService;
+import com.example.servicea.service.SnapshotResponseEncoder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 @RestController
 @RequestMapping("/currencies")
@@ -24,16 +49,40 @@ public class CurrencyController {
     private final CbarService cbarService;
     private final CurrencyCacheService cacheService;
     private final CacheCleanupService cleanupService;
+    private final RateSeriesService seriesService;
+    private final BatchRateService batchRateService;
+    private final CrossRateService crossRateService;
+    private final RateMetrics metrics;
+    private final RateStreamService rateStream;
+    private final SnapshotResponseEncoder responseEncoder;
+    private final HttpCachePolicy cachePolicy;
+    private final DatabaseBulkhead databaseBulkhead;
+    private final ObjectMapper objectMapper;
     
-    public CurrencyController(CbarService cbarService, CurrencyCacheService cacheService, CacheCleanupService cleanupService) {
+    public CurrencyController(CbarService cbarService, CurrencyCacheService cacheService, CacheCleanupService cleanupService,
+                              RateSeriesService seriesService, BatchRateService batchRateService, CrossRateService crossRateService,
+                              RateMetrics metrics, RateStreamService rateStream,
+                              SnapshotResponseEncoder responseEncoder, HttpCachePolicy cachePolicy,
+                              DatabaseBulkhead databaseBulkhead, ObjectMapper objectMapper) {
         this.cbarService = cbarService;
         this.cacheService = cacheService;
         this.cleanupService = cleanupService;
+        this.seriesService = seriesService;
+        this.batchRateService = batchRateService;
+        this.crossRateService = crossRateService;
+        this.metrics = metrics;
+        this.rateStream = rateStream;
+        this.responseEncoder = responseEncoder;
+        this.cachePolicy = cachePolicy;
+        this.databaseBulkhead = databaseBulkhead;
+        this.objectMapper = objectMapper;
     }
     
     @GetMapping
-    public ResponseEntity<List<Currency>> getCurrencies(
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+    public ResponseEntity<byte[]> getCurrencies(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
             log.info("Received request for currencies on date: {}", date);
@@ -43,11 +92,34 @@ public class CurrencyController {
                 return ResponseEntity.badRequest().build();
             }
             
-            List<Currency> currencies = cbarService.getCurrencies(date.toString());
+            // Snapshots in memory carry their body pre-serialized and pre-compressed, and answer
+            // revalidations without going near CBAR or the database
+            DatedRates rates = cbarService.getRates(date);
+            EncodedResponse body = cacheService.peekSnapshot(rates.ratesDate())
+                    .filter(snapshot -> snapshot.getCurrencies() == rates.currencies())
+                    .map(responseEncoder::encode)
+                    .orElseGet(() -> responseEncoder.encode(rates.currencies()));
             
-            log.info("Returning {} currencies for date: {}", currencies.size(), date);
-            return ResponseEntity.ok(currencies);
+            boolean gzip = SnapshotResponseEncoder.acceptsGzip(acceptEncoding);
+            HttpHeaders headers = cachingHeaders(rates, body.etag(gzip));
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            if (HttpCachePolicy.matches(ifNoneMatch, headers.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
+            
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            byte[] bytes = body.identity();
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                bytes = body.gzip();
+            }
             
+            log.info("Returning {} currencies for date: {}", rates.currencies().size(), date);
+            return ResponseEntity.ok().headers(headers).body(bytes);
+            
+        } catch (CbarUnavailableException e) {
+            log.warn("CBAR unavailable and nothing cached for {}: {}", date, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             log.error("Error processing currency request for date {}: {}", date, e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -57,7 +129,8 @@ public class CurrencyController {
     @GetMapping("/rate")
     public ResponseEntity<Currency> getRate(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
-            @RequestParam String currency) {
+            @RequestParam String currency,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
             log.info("Received request for rate on date: {} for currency: {}", date, currency);
@@ -71,16 +144,47 @@ public class CurrencyController {
             if (currency == null || currency.trim().isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
+            String code = currency.trim().toUpperCase(Locale.ROOT);
+            
+            // Revalidation of a snapshot held in memory is answered before any lookup
+            String etag = rateETag(date, code);
+            if (etag != null && HttpCachePolicy.matches(ifNoneMatch, etag)) {
+                DatedRates rates = new DatedRates(date, date, List.of(), false);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(cachingHeaders(rates, etag)).build();
+            }
             
-            // Use the new caching-enabled method
-            Currency targetCurrency = cbarService.getCurrencyRate(date.toString(), currency.trim());
+            // Hot path: one case-insensitive index probe, no list scan. Dates CBAR does not publish
+            // skip it and go to the calendar in getRates.
+            boolean unpublished = cbarService.getCalendar().isKnownUnpublished(date);
+            Optional<Currency> cached = unpublished ? Optional.empty() : cacheService.getFromCache(date, code);
+            if (cached.isPresent()) {
+                DatedRates rates = new DatedRates(date, date, List.of(cached.get()), false);
+                return ResponseEntity.ok().headers(cachingHeaders(rates, etag)).body(cached.get());
+            }
+            
+            // The served snapshot is left in memory; loadRates does not count the miss above again
+            DatedRates rates = unpublished ? cbarService.getRates(date) : cbarService.loadRates(date);
+            Optional<Currency> found = cacheService.findSnapshot(rates.ratesDate())
+                    .flatMap(snapshot -> snapshot.find(code));
+            if (found.isEmpty()) {
+                // The served snapshot holds every currency of its date, so the code is not quoted
+                log.info("Currency {} not quoted on {}", code, rates.ratesDate());
+                return ResponseEntity.notFound().build();
+            }
+            Currency targetCurrency = found.get();
+            
+            HttpHeaders headers = cachingHeaders(rates, rates.stale() ? null : rateETag(rates.ratesDate(), code));
+            if (HttpCachePolicy.matches(ifNoneMatch, headers.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
             
             log.info("Returning rate for currency: {} on date: {} - rate: {}", 
                     currency, date, targetCurrency.getRate());
-            log.info("Currency object details: code={}, name={}, rate={}", 
-                    targetCurrency.getCode(), targetCurrency.getName(), targetCurrency.getRate());
-            return ResponseEntity.ok(targetCurrency);
+            return ResponseEntity.ok().headers(headers).body(targetCurrency);
             
+        } catch (CbarUnavailableException e) {
+            log.warn("CBAR unavailable and nothing cached for {}: {}", date, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             log.error("Error processing rate request for date {} and currency {}: {}", 
                     date, currency, e.getMessage(), e);
@@ -88,25 +192,179 @@ public class CurrencyController {
         }
     }
     
+    /**
+     * Headers telling the client which publication it got, whether it is a stale stand-in, and how long to cache it
+     */
+    private HttpHeaders cachingHeaders(DatedRates rates, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Rates-Date", rates.ratesDate().toString());
+        if (rates.stale()) {
+            headers.set("X-Rates-Stale", "true");
+        }
+        headers.setCacheControl(cachePolicy.cacheControl(rates.requestedDate(), rates.ratesDate(), rates.stale()));
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return headers;
+    }
+    
+    /**
+     * Strong ETag of one currency of a snapshot held in memory: the snapshot's content hash plus the code
+     */
+    private String rateETag(LocalDate ratesDate, String code) {
+        return cacheService.peekSnapshot(ratesDate)
+                .map(snapshot -> "\"" + responseEncoder.encode(snapshot).hash() + "-" + code + "\"")
+                .orElse(null);
+    }
+    
+    @PostMapping("/rates:batch")
+    public ResponseEntity<?> getRatesBatch(@RequestBody List<RateRequest> requests) {
+        
+        try {
+            log.info("Received batch rate request with {} pairs", requests == null ? 0 : requests.size());
+            BatchRateResponse response = batchRateService.getRates(requests);
+            // Nothing could be answered and every pair failed: CBAR is unavailable rather than the rates absent
+            if (response.getRates().isEmpty() && response.getMissing().isEmpty()) {
+                log.warn("Batch of {} pairs failed entirely", response.getFailed().size());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+            }
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch rate request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error processing batch rate request: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/cross")
+    public ResponseEntity<?> getCrossRate(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestParam String from,
+            @RequestParam String to) {
+        
+        try {
+            if (date.isAfter(LocalDate.now()) || from.isBlank() || to.isBlank()) {
+                return ResponseEntity.badRequest().build();
+            }
+            return crossRateService.getCrossRate(date, from, to)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error processing cross rate request for date {} ({} -> {}): {}", date, from, to, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/cross/matrix")
+    public ResponseEntity<Map<String, Object>> getCrossRateMatrix(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+        
+        try {
+            if (date.isAfter(LocalDate.now())) {
+                return ResponseEntity.badRequest().build();
+            }
+            return crossRateService.getMatrixSnapshot(date)
+                    .map(snapshot -> {
+                        CrossRateMatrix matrix = snapshot.getCrossRates();
+                        Map<String, Object> response = new LinkedHashMap<>();
+                        response.put("date", snapshot.getDate());
+                        response.put("codes", matrix.getCodes());
+                        response.put("rates", matrix.toRows());
+                        return ResponseEntity.ok(response);
+                    })
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+            
+        } catch (Exception e) {
+            log.error("Error processing cross rate matrix request for date {}: {}", date, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/series")
+    public ResponseEntity<StreamingResponseBody> getSeries(
+            @RequestParam String code,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+        
+        log.info("Received series request for currency: {} from {} to {}", code, from, to);
+        
+        if (code == null || code.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            seriesService.validateRange(from, to);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected series request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // Points are written to the response as they become available instead of being collected first
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                int written = seriesService.streamSeries(code, from, to, point -> {
+                    generator.writeObject(point);
+                    generator.flush();
+                });
+                generator.writeEndArray();
+                log.info("Streamed {} points of {} from {} to {}", written, code, from, to);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+    
+    /**
+     * Server-sent events announcing each newly ingested or refreshed snapshot, so clients need not poll
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRates() {
+        try {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(rateStream.subscribe());
+        } catch (IllegalStateException e) {
+            log.warn("Rejected rate stream subscription: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @GetMapping("/cache/status")
     public ResponseEntity<Map<String, Object>> getCacheStatus(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
         
         try {
             Map<String, Object> status = new HashMap<>();
-            boolean isCached = cacheService.isCached(date);
+            Optional<CurrencyCacheService.CachedCount> cached = cacheService.countCached(date);
             
             status.put("date", date.toString());
-            status.put("isCached", isCached);
+            status.put("isCached", cached.isPresent());
             
-            if (isCached) {
-                List<Currency> cachedCurrencies = cacheService.getFromCache(date);
-                status.put("cachedCurrenciesCount", cachedCurrencies.size());
-                status.put("cacheSource", "database");
+            if (cached.isPresent()) {
+                status.put("cachedCurrenciesCount", cached.get().count());
+                status.put("cacheSource", cached.get().tier().name().toLowerCase(Locale.ROOT));
             } else {
                 status.put("cacheSource", "CBAR API");
             }
             
+            status.put("cacheStats", metrics.getCacheStats());
+            status.put("cbarFetches", cbarService.getFetchStats().getExecutions());
+            status.put("coalescedCallers", cbarService.getFetchStats().getCoalesced());
+            status.put("inFlightFetches", cbarService.getFetchStats().getInFlight());
+            status.put("publishedDates", cbarService.getCalendar().getPublishedCount());
+            status.put("unpublishedDates", cbarService.getCalendar().getUnpublishedCount());
+            status.put("cbarHttp", cbarService.getHttpStats());
+            status.put("cbarBreaker", cbarService.getBreaker().getState());
+            status.put("cbarBreakerRejected", cbarService.getBreaker().getRejected());
+            status.put("stream", rateStream.getStats());
+            status.put("database", databaseBulkhead.getStats());
+            
             return ResponseEntity.ok(status);
             
         } catch (Exception e) {
@@ -116,19 +374,24 @@ public class CurrencyController {
     }
     
     @PostMapping("/cache/cleanup")
-    public ResponseEntity<Map<String, String>> cleanupCache(
+    public ResponseEntity<Map<String, Object>> cleanupCache(
             @RequestParam(defaultValue = "30") int daysToKeep) {
         
         try {
             log.info("Manual cache cleanup requested for data older than {} days", daysToKeep);
-            cleanupService.manualCleanup(daysToKeep);
+            RetentionReport report = cleanupService.manualCleanup(daysToKeep);
             
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("message", "Cache cleanup completed successfully");
             response.put("daysKept", String.valueOf(daysToKeep));
+            response.put("report", report);
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             log.error("Error during manual cache cleanup: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
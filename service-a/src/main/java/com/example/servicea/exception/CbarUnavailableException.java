@@ -0,0 +1,11 @@
+package com.example.servicea.exception;
+
+/**
+ * Thrown without calling CBAR while its circuit breaker is open
+ */
+public class CbarUnavailableException extends RuntimeException {
+
+    public CbarUnavailableException(String message) {
+        super(message);
+    }
+}
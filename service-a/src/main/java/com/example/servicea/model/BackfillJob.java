@@ -0,0 +1,109 @@
+package com.example.servicea.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Progress of a historical backfill over a date range. Counters are updated concurrently
+ * by the fetch workers and read by the status endpoint.
+ */
+public class BackfillJob {
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final AtomicInteger totalDates = new AtomicInteger();
+    private final AtomicInteger skippedDates = new AtomicInteger();
+    private final AtomicInteger fetchedDates = new AtomicInteger();
+    private final AtomicInteger savedDates = new AtomicInteger();
+    private final AtomicInteger emptyDates = new AtomicInteger();
+    private final ConcurrentSkipListSet<LocalDate> failedDates = new ConcurrentSkipListSet<>();
+    private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+    private volatile Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public BackfillJob(String id, LocalDate from, LocalDate to) {
+        this.id = id;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Move a finished job back to running and reset its progress
+     *
+     * @return false if the job is already running, in which case nothing changes
+     */
+    public boolean restart() {
+        State current = state.get();
+        if (current == State.RUNNING || !state.compareAndSet(current, State.RUNNING)) {
+            return false;
+        }
+        totalDates.set(0);
+        skippedDates.set(0);
+        fetchedDates.set(0);
+        savedDates.set(0);
+        emptyDates.set(0);
+        failedDates.clear();
+        error = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    public void finish(State finalState, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state.set(finalState);
+    }
+
+    public String getId() { return id; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public State getState() { return state.get(); }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+
+    public int getTotalDates() { return totalDates.get(); }
+    public int getSkippedDates() { return skippedDates.get(); }
+    public int getFetchedDates() { return fetchedDates.get(); }
+    public int getSavedDates() { return savedDates.get(); }
+    public int getEmptyDates() { return emptyDates.get(); }
+    public List<LocalDate> getFailedDates() { return List.copyOf(failedDates); }
+
+    public void setTotalDates(int total) { totalDates.set(total); }
+    public void addSkippedDates(int count) { skippedDates.addAndGet(count); }
+    public void recordFetched() { fetchedDates.incrementAndGet(); }
+    public void recordSaved(int count) { savedDates.addAndGet(count); }
+    public void recordEmpty() { emptyDates.incrementAndGet(); }
+    public void recordFailed(LocalDate date) { failedDates.add(date); }
+
+    /**
+     * Share of dates processed (skipped, saved, empty or failed), from 0 to 100
+     */
+    public double getPercentComplete() {
+        int total = getTotalDates();
+        if (total == 0) {
+            return state.get() == State.RUNNING ? 0 : 100;
+        }
+        int done = getSkippedDates() + getSavedDates() + getEmptyDates() + failedDates.size();
+        return Math.min(100.0, done * 100.0 / total);
+    }
+
+    /**
+     * Dates fetched per second since the job (re)started
+     */
+    public double getDatesPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+        return seconds > 0 ? getFetchedDates() / seconds : 0;
+    }
+}
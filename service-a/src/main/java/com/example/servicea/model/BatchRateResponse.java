@@ -0,0 +1,20 @@
+package com.example.servicea.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rates of a batch in request order. Pairs not quoted on their date are missing; pairs whose date
+ * could not be looked up, e.g. because CBAR was unavailable, are failed and may succeed on retry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRateResponse {
+    private List<RateResponse> rates;
+    private List<RateRequest> missing;
+    private List<RateRequest> failed;
+}
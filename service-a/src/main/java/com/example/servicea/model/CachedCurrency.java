@@ -10,7 +10,8 @@ import java.time.LocalDate;
 public class CachedCurrency {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cached_currencies_seq")
+    @SequenceGenerator(name = "cached_currencies_seq", sequenceName = "cached_currencies_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "currency_date", nullable = false)
@@ -0,0 +1,100 @@
+package com.example.servicea.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * N×N cross rates between all currencies of a snapshot, AZN included. Entry (i, j) is the amount
+ * of currency j one unit of currency i buys; it is stored row-major in a single primitive array,
+ * so any pair is one array read.
+ */
+public final class CrossRateMatrix {
+
+    public static final String BASE_CURRENCY = "AZN";
+
+    private final List<String> codes;
+    private final Map<String, Integer> ordinals;
+    private final double[] rates;
+
+    private CrossRateMatrix(List<String> codes, Map<String, Integer> ordinals, double[] rates) {
+        this.codes = codes;
+        this.ordinals = ordinals;
+        this.rates = rates;
+    }
+
+    /**
+     * Build the matrix from AZN rates; currencies without a positive rate are left out
+     */
+    public static CrossRateMatrix of(List<Currency> currencies) {
+        List<String> codes = new ArrayList<>(currencies.size() + 1);
+        Map<String, Integer> ordinals = new HashMap<>(currencies.size() * 2 + 2);
+        double[] aznRates = new double[currencies.size() + 1];
+
+        codes.add(BASE_CURRENCY);
+        ordinals.put(BASE_CURRENCY, 0);
+        aznRates[0] = 1.0;
+        for (Currency currency : currencies) {
+            BigDecimal rate = currency.getRate();
+            if (currency.getCode() == null || rate == null || rate.signum() <= 0) {
+                continue;
+            }
+            String code = currency.getCode().toUpperCase(Locale.ROOT);
+            if (ordinals.putIfAbsent(code, codes.size()) == null) {
+                aznRates[codes.size()] = rate.doubleValue();
+                codes.add(code);
+            }
+        }
+
+        int n = codes.size();
+        double[] rates = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                rates[i * n + j] = aznRates[i] / aznRates[j];
+            }
+        }
+        return new CrossRateMatrix(Collections.unmodifiableList(codes), Collections.unmodifiableMap(ordinals), rates);
+    }
+
+    /**
+     * Ordinal of a currency in the matrix, or -1 if it is not quoted
+     */
+    public int ordinal(String currencyCode) {
+        if (currencyCode == null) {
+            return -1;
+        }
+        Integer ordinal = ordinals.get(currencyCode);
+        if (ordinal == null) {
+            ordinal = ordinals.get(currencyCode.toUpperCase(Locale.ROOT));
+        }
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Cross rate by ordinals
+     */
+    public double rate(int from, int to) {
+        return rates[from * codes.size() + to];
+    }
+
+    public List<String> getCodes() { return codes; }
+
+    public int size() { return codes.size(); }
+
+    /**
+     * The matrix as rows, for serialization
+     */
+    public double[][] toRows() {
+        int n = codes.size();
+        double[][] rows = new double[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = new double[n];
+            System.arraycopy(rates, i * n, rows[i], 0, n);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.servicea.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrossRateResponse {
+    private String from;
+    private String to;
+    private double rate;
+    private LocalDate date;
+}
@@ -0,0 +1,10 @@
+package com.example.servicea.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rates served for a requested date, with the date they were actually published for and whether
+ * they are a stale stand-in served while CBAR could not be reached
+ */
+public record DatedRates(LocalDate requestedDate, LocalDate ratesDate, List<Currency> currencies, boolean stale) {}
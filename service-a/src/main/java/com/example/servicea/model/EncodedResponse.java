@@ -0,0 +1,15 @@
+package com.example.servicea.model;
+
+/**
+ * A response body serialized once, as UTF-8 JSON and gzip-compressed, with a hash of the JSON
+ * content. The arrays are shared between requests and must not be modified.
+ */
+public record EncodedResponse(byte[] identity, byte[] gzip, String hash) {
+
+    /**
+     * Strong ETag of one encoding of the body; each encoding is a distinct representation
+     */
+    public String etag(boolean gzipped) {
+        return gzipped ? "\"" + hash + "-gz\"" : "\"" + hash + "\"";
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.servicea.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Notice that the rates of a date were ingested or refreshed, pushed to stream subscribers
+ */
+public record RateEvent(long sequence, LocalDate date, int currencies, boolean refreshed, Instant publishedAt) {}
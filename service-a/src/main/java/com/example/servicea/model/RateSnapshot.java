@@ -0,0 +1,90 @@
+package com.example.servicea.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable view of all currency rates published for a single date.
+ * Instances are shared between requests, so the contained {@link Currency}
+ * objects must be treated as read-only.
+ */
+public final class RateSnapshot {
+
+    private final LocalDate date;
+    private final List<Currency> currencies;
+    private final Map<String, Currency> byCode;
+    private volatile CrossRateMatrix crossRates;
+    private volatile EncodedResponse encodedJson;
+
+    private RateSnapshot(LocalDate date, List<Currency> currencies, Map<String, Currency> byCode) {
+        this.date = date;
+        this.currencies = currencies;
+        this.byCode = byCode;
+    }
+
+    /**
+     * Build a snapshot from the given currencies, indexing them by upper-case code
+     */
+    public static RateSnapshot of(LocalDate date, List<Currency> currencies) {
+        Map<String, Currency> byCode = new HashMap<>(currencies.size() * 2);
+        for (Currency currency : currencies) {
+            if (currency.getCode() != null) {
+                byCode.putIfAbsent(currency.getCode().toUpperCase(Locale.ROOT), currency);
+            }
+        }
+        return new RateSnapshot(date, List.copyOf(currencies), Collections.unmodifiableMap(byCode));
+    }
+
+    public LocalDate getDate() { return date; }
+
+    public List<Currency> getCurrencies() { return currencies; }
+
+    public int size() { return currencies.size(); }
+
+    /**
+     * Cross rates between all currencies of this snapshot, built on first use
+     */
+    public CrossRateMatrix getCrossRates() {
+        CrossRateMatrix matrix = crossRates;
+        if (matrix == null) {
+            // Racing builders produce equal immutable matrices, so the last write is as good as the first
+            matrix = CrossRateMatrix.of(currencies);
+            crossRates = matrix;
+        }
+        return matrix;
+    }
+
+    /**
+     * The currency list serialized by the given encoder, built on first use.
+     * Snapshots are replaced rather than changed, so the bytes never go stale.
+     */
+    public EncodedResponse getEncodedJson(Function<List<Currency>, EncodedResponse> encoder) {
+        EncodedResponse encoded = encodedJson;
+        if (encoded == null) {
+            encoded = encoder.apply(currencies);
+            encodedJson = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Look up a currency by code. Exact upper-case codes resolve with a single
+     * hash probe; other spellings fall back to a case-insensitive probe.
+     */
+    public Optional<Currency> find(String currencyCode) {
+        if (currencyCode == null) {
+            return Optional.empty();
+        }
+        Currency currency = byCode.get(currencyCode);
+        if (currency == null) {
+            currency = byCode.get(currencyCode.toUpperCase(Locale.ROOT));
+        }
+        return Optional.ofNullable(currency);
+    }
+}
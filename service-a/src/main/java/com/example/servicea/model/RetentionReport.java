@@ -0,0 +1,12 @@
+package com.example.servicea.model;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one retention run: the full-detail cutoff, the oldest month kept downsampled, and
+ * how many dates and rows were kept or deleted in how many chunks, how many dates left the durable
+ * store, and how long
+ */
+public record RetentionReport(LocalDate cutoffDate, LocalDate downsampleCutoffDate, int datesExamined,
+                              int monthEndDatesKept, int datesDeleted, long rowsDeleted, int chunks,
+                              int storeDatesDeleted, long durationMs) {}
@@ -0,0 +1,132 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.client.CbarHttpClient;
+import com.example.servicea.client.CircuitBreaker;
+import com.example.servicea.exception.CbarUnavailableException;
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarDocumentParser;
+import com.example.servicea.service.CbarResponseArchive;
+import com.example.servicea.service.RateMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rates from the CBAR website, guarded by the circuit breaker. Documents are archived as they
+ * stream in, and an archived copy is revalidated with a conditional request.
+ */
+@Component
+public class CbarRateProvider implements RateProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(CbarRateProvider.class);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final CbarHttpClient httpClient;
+    private final CircuitBreaker breaker;
+    private final CbarResponseArchive archive;
+    private final CbarDocumentParser documentParser;
+    private final RateMetrics metrics;
+    private final String baseUrl;
+
+    public CbarRateProvider(CbarHttpClient httpClient, CircuitBreaker breaker, CbarResponseArchive archive,
+                            CbarDocumentParser documentParser, RateMetrics metrics,
+                            @Value("${rates.provider.cbar.base-url:https://cbar.az/currencies}") String baseUrl) {
+        this.httpClient = httpClient;
+        this.breaker = breaker;
+        this.archive = archive;
+        this.documentParser = documentParser;
+        this.metrics = metrics;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String name() {
+        return "cbar";
+    }
+
+    @Override
+    public List<Currency> fetch(LocalDate localDate) {
+        // Fail fast while CBAR is known to be down instead of waiting on sockets
+        if (!breaker.allowRequest()) {
+            throw new CbarUnavailableException("CBAR circuit breaker is open, not fetching " + localDate);
+        }
+        long start = System.nanoTime();
+        try {
+            log.info("Fetching currencies from CBAR API for date: {}", localDate);
+            
+            // Format date for CBAR API (dd.MM.yyyy)
+            String url = baseUrl + "/" + localDate.format(DATE_FORMATTER) + ".xml";
+            log.info("Fetching from URL: {}", url);
+            
+            // Revalidate an archived copy instead of downloading it again
+            Optional<CbarResponseArchive.Entry> archived = archive.get(localDate);
+            
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE + ", " + MediaType.TEXT_XML_VALUE);
+            archived.ifPresent(entry -> {
+                if (entry.etag() != null) {
+                    headers.put(HttpHeaders.IF_NONE_MATCH, entry.etag());
+                }
+                if (entry.lastModified() != null) {
+                    headers.put(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified());
+                }
+            });
+            
+            // Stream the response body straight into the parser; the XML prolog declares the charset
+            List<Currency> currencies = httpClient.get(url, headers, (status, responseHeaders, body) -> {
+                if (status == HttpStatus.NOT_MODIFIED.value() && archived.isPresent()) {
+                    log.info("CBAR document for {} not modified, parsing archived copy", localDate);
+                    try (InputStream in = archive.open(localDate)) {
+                        return documentParser.parse(in);
+                    }
+                }
+                if (status != HttpStatus.OK.value()) {
+                    throw new IOException("CBAR returned HTTP " + status);
+                }
+                try (CbarResponseArchive.Capture capture = archive.capture(localDate, body,
+                        responseHeaders.firstValue(HttpHeaders.ETAG).orElse(null),
+                        responseHeaders.firstValue(HttpHeaders.LAST_MODIFIED).orElse(null))) {
+                    List<Currency> parsed = documentParser.parse(capture);
+                    capture.complete();
+                    return parsed;
+                }
+            });
+            
+            if (currencies == null) {
+                throw new RuntimeException("Empty response from CBAR API");
+            }
+            
+            breaker.onSuccess();
+            metrics.recordFetch(System.nanoTime() - start, true);
+            log.info("Successfully parsed {} currencies with exchange rates from CBAR API", currencies.size());
+            return currencies;
+            
+        } catch (Exception e) {
+            // A fetch cancelled because another provider answered first says nothing about CBAR's health,
+            // but a half-open trial must still be handed back
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.onCancelled();
+                log.debug("CBAR fetch for {} cancelled", localDate);
+                throw new RuntimeException("CBAR fetch cancelled for " + localDate, e);
+            }
+            breaker.onFailure();
+            metrics.recordFetch(System.nanoTime() - start, false);
+            log.error("Error fetching currencies from CBAR API for date {}: {}", localDate, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch currencies from CBAR: " + e.getMessage(), e);
+        }
+    }
+}
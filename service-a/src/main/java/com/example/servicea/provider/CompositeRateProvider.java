@@ -0,0 +1,114 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Asks every enabled provider at once and returns the first non-empty answer, cancelling the
+ * others. Empty answers are only returned once no provider has rates for the date; when none
+ * answers at all, the first failure is rethrown with the rest attached as suppressed.
+ */
+@Primary
+@Component
+public class CompositeRateProvider implements RateProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(CompositeRateProvider.class);
+
+    private final List<RateProvider> providers;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rate-provider-", 0).factory());
+
+    @Autowired
+    public CompositeRateProvider(List<RateProvider> available,
+                                 @Value("${rates.providers:cbar}") List<String> enabled) {
+        this(select(available, enabled));
+    }
+
+    CompositeRateProvider(List<RateProvider> providers) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("No rate provider enabled");
+        }
+        this.providers = List.copyOf(providers);
+        log.info("Rate providers: {}", this.providers.stream().map(RateProvider::name).toList());
+    }
+
+    private static List<RateProvider> select(List<RateProvider> available, List<String> enabled) {
+        List<RateProvider> selected = new ArrayList<>();
+        for (String name : enabled) {
+            RateProvider provider = available.stream()
+                    .filter(candidate -> candidate.name().equalsIgnoreCase(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown rate provider: " + name));
+            selected.add(provider);
+        }
+        return selected;
+    }
+
+    @Override
+    public String name() {
+        return "composite";
+    }
+
+    @Override
+    public List<Currency> fetch(LocalDate date) {
+        // A single source needs no fan-out; call it directly so its exceptions surface unchanged
+        if (providers.size() == 1) {
+            return providers.get(0).fetch(date);
+        }
+
+        ExecutorCompletionService<List<Currency>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<List<Currency>>> futures = new ArrayList<>(providers.size());
+        for (RateProvider provider : providers) {
+            futures.add(completion.submit(() -> provider.fetch(date)));
+        }
+
+        List<Currency> empty = null;
+        RuntimeException failure = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<List<Currency>> done = completion.take();
+                try {
+                    List<Currency> currencies = done.get();
+                    if (!currencies.isEmpty()) {
+                        log.debug("Rates for {} served by {}", date, providers.get(futures.indexOf(done)).name());
+                        return currencies;
+                    }
+                    empty = currencies;
+                } catch (ExecutionException | CancellationException e) {
+                    RuntimeException cause = e.getCause() instanceof RuntimeException runtime
+                            ? runtime : new RuntimeException(e.getCause() != null ? e.getCause() : e);
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching rates for " + date, e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        if (empty != null) {
+            return empty;
+        }
+        throw failure;
+    }
+}
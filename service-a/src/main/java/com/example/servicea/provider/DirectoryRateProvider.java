@@ -0,0 +1,87 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarDocumentParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Rates from CBAR documents on local disk, for running offline (load tests, air-gapped hosts).
+ * Reads the response archive layout ({@code <yyyy>/<yyyy-MM-dd>.xml.gz}) as well as flat
+ * {@code <yyyy-MM-dd>.xml[.gz]} and CBAR-named {@code <dd.MM.yyyy>.xml} files.
+ */
+@Component
+public class DirectoryRateProvider implements RateProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryRateProvider.class);
+
+    private static final DateTimeFormatter CBAR_FILE_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final Path directory;
+    private final boolean missingAsUnpublished;
+    private final CbarDocumentParser documentParser;
+
+    public DirectoryRateProvider(CbarDocumentParser documentParser,
+                                 @Value("${rates.provider.directory.path:./data/cbar-archive}") String directory,
+                                 @Value("${rates.provider.directory.missing-as-unpublished:false}") boolean missingAsUnpublished) {
+        this.documentParser = documentParser;
+        this.directory = Path.of(directory);
+        this.missingAsUnpublished = missingAsUnpublished;
+    }
+
+    @Override
+    public String name() {
+        return "directory";
+    }
+
+    @Override
+    public List<Currency> fetch(LocalDate date) {
+        Path document = locate(date);
+        if (document == null) {
+            if (missingAsUnpublished) {
+                return List.of();
+            }
+            throw new UncheckedIOException(new NoSuchFileException(directory.resolve(date + ".xml").toString(),
+                    null, "no rates document for " + date));
+        }
+        try (InputStream in = open(document)) {
+            List<Currency> currencies = documentParser.parse(in);
+            log.debug("Loaded {} currencies for {} from {}", currencies.size(), date, document);
+            return currencies;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read rates document " + document, e);
+        }
+    }
+
+    private Path locate(LocalDate date) {
+        List<Path> candidates = List.of(
+                directory.resolve(String.valueOf(date.getYear())).resolve(date + ".xml.gz"),
+                directory.resolve(date + ".xml.gz"),
+                directory.resolve(date + ".xml"),
+                directory.resolve(date.format(CBAR_FILE_DATE) + ".xml"));
+        for (Path candidate : candidates) {
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static InputStream open(Path document) throws IOException {
+        InputStream in = Files.newInputStream(document);
+        return document.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 8192) : in;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.model.Currency;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Source of the official rates published for a date.
+ *
+ * <p>An empty list means the source knows nothing was published for the date (a weekend or
+ * holiday). A source that cannot answer, because it is unreachable or simply does not hold
+ * the date, throws an unchecked exception instead. Implementations must be thread-safe and
+ * should give up promptly when their thread is interrupted.</p>
+ */
+public interface RateProvider {
+
+    /**
+     * Short name used to enable the provider in {@code rates.providers}
+     */
+    String name();
+
+    /**
+     * Fetch the rates published for a date
+     */
+    List<Currency> fetch(LocalDate date);
+}
@@ -1,12 +1,16 @@
 package com.example.servicea.repository;
 
 import com.example.servicea.model.CachedCurrency;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,8 +39,46 @@ public interface CachedCurrencyRepository extends JpaRepository<CachedCurrency,
     List<CachedCurrency> findByCurrencyDateAndCurrencyCodeIn(@Param("date") LocalDate date, @Param("codes") List<String> codes);
     
     /**
-     * Delete old cached data (older than specified days)
+     * Find one currency's cached rates within a date range (inclusive), ordered by date
      */
-    @Query("DELETE FROM CachedCurrency c WHERE c.currencyDate < :cutoffDate")
-    void deleteByCurrencyDateBefore(@Param("cutoffDate") LocalDate cutoffDate);
+    @Query("SELECT c FROM CachedCurrency c WHERE c.currencyCode = :code AND c.currencyDate BETWEEN :from AND :to ORDER BY c.currencyDate")
+    List<CachedCurrency> findSeries(@Param("code") String code, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * Find the distinct dates that have cached currencies within a range (inclusive)
+     */
+    @Query("SELECT DISTINCT c.currencyDate FROM CachedCurrency c WHERE c.currencyDate BETWEEN :from AND :to")
+    List<LocalDate> findCachedDatesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * Count cached currencies for a date
+     */
+    long countByCurrencyDate(LocalDate currencyDate);
+    
+    /**
+     * Delete all cached currencies for a date
+     */
+    @Modifying
+    @Query("DELETE FROM CachedCurrency c WHERE c.currencyDate = :date")
+    int deleteByCurrencyDate(@Param("date") LocalDate date);
+    
+    /**
+     * Find the distinct dates that have cached currencies before a cutoff date, ascending
+     */
+    @Query("SELECT DISTINCT c.currencyDate FROM CachedCurrency c WHERE c.currencyDate < :cutoffDate ORDER BY c.currencyDate")
+    List<LocalDate> findCachedDatesBefore(@Param("cutoffDate") LocalDate cutoffDate);
+    
+    /**
+     * Find one page of row ids cached for the given dates, lowest ids first
+     */
+    @Query("SELECT c.id FROM CachedCurrency c WHERE c.currencyDate IN :dates ORDER BY c.id")
+    List<Long> findIdsByCurrencyDateIn(@Param("dates") Collection<LocalDate> dates, Pageable pageable);
+    
+    /**
+     * Delete cached rows by id, each call in its own short transaction
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CachedCurrency c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,255 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.BackfillJob;
+import com.example.servicea.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads CBAR history for a date range into the cache. Dates already cached are skipped,
+ * fetches fan out on virtual threads behind a concurrency limit and a token-bucket rate
+ * limit, and results are written back in multi-date batches. Re-running a job resumes it,
+ * because every date saved by the previous run is skipped. Dates CBAR has nothing for are
+ * recorded in the publication calendar, so later reads and runs do not ask CBAR for them again.
+ */
+@Service
+public class BackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillService.class);
+
+    private final CbarService cbarService;
+    private final CurrencyCacheService cacheService;
+    private final PublicationCalendar calendar;
+    private final int maxConcurrency;
+    private final double requestsPerSecond;
+    private final int batchDays;
+    private final int maxDays;
+    private final Map<String, BackfillJob> jobs = new ConcurrentHashMap<>();
+
+    public BackfillService(CbarService cbarService,
+                           CurrencyCacheService cacheService,
+                           PublicationCalendar calendar,
+                           @Value("${backfill.max-concurrency:4}") int maxConcurrency,
+                           @Value("${backfill.requests-per-second:5}") double requestsPerSecond,
+                           @Value("${backfill.batch-days:10}") int batchDays,
+                           @Value("${backfill.max-days:3660}") int maxDays) {
+        this.cbarService = cbarService;
+        this.cacheService = cacheService;
+        this.calendar = calendar;
+        this.maxConcurrency = maxConcurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.batchDays = batchDays;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Start a backfill job for a date range (inclusive) in the background
+     */
+    public BackfillJob startBackfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("'to' must not be in the future");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+            throw new IllegalArgumentException("Backfill range must not exceed " + maxDays + " days");
+        }
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), from, to);
+        jobs.put(job.getId(), job);
+        launch(job);
+        return job;
+    }
+
+    /**
+     * Run a finished job again over its range, picking up every date that is still missing
+     */
+    public Optional<BackfillJob> resume(String jobId) {
+        BackfillJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        // Only the caller that moves the job back to running launches it
+        if (!job.restart()) {
+            throw new IllegalStateException("Backfill job " + jobId + " is still running");
+        }
+        launch(job);
+        return Optional.of(job);
+    }
+
+    public Optional<BackfillJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Collection<BackfillJob> getJobs() {
+        return jobs.values();
+    }
+
+    private void launch(BackfillJob job) {
+        Thread.ofVirtual().name("backfill-" + job.getId()).start(() -> run(job));
+    }
+
+    private void run(BackfillJob job) {
+        log.info("Starting backfill {} for {} to {}", job.getId(), job.getFrom(), job.getTo());
+        try {
+            List<LocalDate> pending = pendingDates(job);
+            LinkedBlockingQueue<Map.Entry<LocalDate, List<Currency>>> fetched = new LinkedBlockingQueue<>();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                Semaphore permits = new Semaphore(maxConcurrency);
+                TokenBucket rateLimit = new TokenBucket(requestsPerSecond, maxConcurrency);
+                for (LocalDate date : pending) {
+                    permits.acquire();
+                    rateLimit.acquire();
+                    executor.submit(() -> {
+                        try {
+                            fetched.put(Map.entry(date, fetch(job, date)));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                    drain(job, fetched, batchDays);
+                }
+            }
+            drain(job, fetched, 1);
+
+            job.finish(job.getFailedDates().isEmpty() ? BackfillJob.State.COMPLETED : BackfillJob.State.FAILED,
+                    job.getFailedDates().isEmpty() ? null : job.getFailedDates().size() + " dates failed");
+            log.info("Backfill {} finished: {} saved, {} skipped, {} empty, {} failed, {} dates/s",
+                    job.getId(), job.getSavedDates(), job.getSkippedDates(), job.getEmptyDates(),
+                    job.getFailedDates().size(), String.format("%.2f", job.getDatesPerSecond()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(BackfillJob.State.FAILED, "Interrupted");
+        } catch (Exception e) {
+            log.error("Backfill {} failed: {}", job.getId(), e.getMessage(), e);
+            job.finish(BackfillJob.State.FAILED, e.getMessage());
+        }
+    }
+
+    private List<LocalDate> pendingDates(BackfillJob job) {
+        Set<LocalDate> cached = cacheService.getCachedDates(job.getFrom(), job.getTo());
+        List<LocalDate> pending = new ArrayList<>();
+        int knownEmpty = 0;
+        for (LocalDate date = job.getFrom(); !date.isAfter(job.getTo()); date = date.plusDays(1)) {
+            if (cached.contains(date)) {
+                continue;
+            }
+            // Dates CBAR is known to publish nothing for count as empty without another fetch
+            if (calendar.isKnownUnpublished(date)) {
+                job.recordEmpty();
+                knownEmpty++;
+            } else {
+                pending.add(date);
+            }
+        }
+        job.setTotalDates((int) ChronoUnit.DAYS.between(job.getFrom(), job.getTo()) + 1);
+        job.addSkippedDates(cached.size());
+        log.info("Backfill {}: {} dates to fetch, {} already cached, {} known to be empty",
+                job.getId(), pending.size(), cached.size(), knownEmpty);
+        return pending;
+    }
+
+    private List<Currency> fetch(BackfillJob job, LocalDate date) {
+        try {
+            List<Currency> currencies = cbarService.fetchFromCbar(date);
+            job.recordFetched();
+            if (currencies.isEmpty()) {
+                calendar.markUnpublished(date);
+                job.recordEmpty();
+            }
+            return currencies;
+        } catch (Exception e) {
+            log.warn("Backfill {}: fetch failed for {}: {}", job.getId(), date, e.getMessage());
+            job.recordFailed(date);
+            return List.of();
+        }
+    }
+
+    /**
+     * Write fetched dates to the cache once at least {@code minBatch} are queued
+     */
+    private void drain(BackfillJob job, LinkedBlockingQueue<Map.Entry<LocalDate, List<Currency>>> fetched,
+                       int minBatch) {
+        while (fetched.size() >= minBatch) {
+            Map<LocalDate, List<Currency>> batch = new LinkedHashMap<>();
+            List<Map.Entry<LocalDate, List<Currency>>> entries = new ArrayList<>();
+            fetched.drainTo(entries, batchDays);
+            for (Map.Entry<LocalDate, List<Currency>> entry : entries) {
+                if (!entry.getValue().isEmpty()) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            // Dates may have been cached by user requests while they were being fetched
+            LocalDate first = batch.keySet().stream().min(LocalDate::compareTo).orElseThrow();
+            LocalDate last = batch.keySet().stream().max(LocalDate::compareTo).orElseThrow();
+            Set<LocalDate> cachedMeanwhile = cacheService.getCachedDates(first, last);
+            int before = batch.size();
+            batch.keySet().removeAll(cachedMeanwhile);
+            job.addSkippedDates(before - batch.size());
+
+            if (!batch.isEmpty()) {
+                save(job, batch);
+            }
+        }
+    }
+
+    private void save(BackfillJob job, Map<LocalDate, List<Currency>> batch) {
+        try {
+            cacheService.saveAllToCache(batch);
+            batch.keySet().forEach(calendar::markPublished);
+            job.recordSaved(batch.size());
+        } catch (Exception e) {
+            log.warn("Backfill {}: batch save failed, retrying per date: {}", job.getId(), e.getMessage());
+            batch.forEach((date, currencies) -> {
+                try {
+                    cacheService.saveAllToCache(Map.of(date, currencies));
+                    calendar.markPublished(date);
+                    job.recordSaved(1);
+                } catch (Exception dateFailure) {
+                    job.recordFailed(date);
+                }
+            });
+        }
+    }
+
+    /**
+     * Wait for a job to leave the running state, for tests and scripted runs
+     */
+    boolean awaitCompletion(BackfillJob job, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (job.getState() == BackfillJob.State.RUNNING) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.BatchRateResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateRequest;
+import com.example.servicea.model.RateResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Resolves many (date, currency) pairs in one call. Pairs are grouped by date and each date is
+ * resolved once, with a snapshot lookup or a single IN query, falling back to CBAR for dates
+ * with nothing cached. Dates are resolved concurrently, so latency follows the slowest date.
+ * Pairs of a date whose lookup fails are reported as failed rather than missing.
+ */
+@Service
+public class BatchRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchRateService.class);
+
+    private final CbarService cbarService;
+    private final CurrencyCacheService cacheService;
+    private final int maxPairs;
+    private final int maxConcurrency;
+
+    public BatchRateService(CbarService cbarService,
+                            CurrencyCacheService cacheService,
+                            @Value("${rates.batch.max-pairs:500}") int maxPairs,
+                            @Value("${rates.batch.max-concurrency:8}") int maxConcurrency) {
+        this.cbarService = cbarService;
+        this.cacheService = cacheService;
+        this.maxPairs = maxPairs;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Look up every requested pair
+     * @return Rates in request order, plus the pairs that could not be resolved
+     */
+    public BatchRateResponse getRates(List<RateRequest> requests) {
+        validate(requests);
+
+        Map<LocalDate, Set<String>> codesByDate = new LinkedHashMap<>();
+        for (RateRequest request : requests) {
+            codesByDate.computeIfAbsent(request.getDate(), date -> new LinkedHashSet<>())
+                    .add(request.getCurrency().trim().toUpperCase(Locale.ROOT));
+        }
+
+        Map<LocalDate, Optional<Map<String, Currency>>> resolved = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore permits = new Semaphore(maxConcurrency);
+            Map<LocalDate, CompletableFuture<Optional<Map<String, Currency>>>> pending = new LinkedHashMap<>();
+            codesByDate.forEach((date, codes) -> pending.put(date, CompletableFuture.supplyAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    return resolveDate(date, codes);
+                } finally {
+                    permits.release();
+                }
+            }, executor)));
+            pending.forEach((date, future) -> resolved.put(date, future.join()));
+        }
+
+        List<RateResponse> rates = new ArrayList<>();
+        List<RateRequest> missing = new ArrayList<>();
+        List<RateRequest> failed = new ArrayList<>();
+        for (RateRequest request : requests) {
+            Optional<Map<String, Currency>> codes = resolved.get(request.getDate());
+            if (codes.isEmpty()) {
+                failed.add(request);
+                continue;
+            }
+            Currency currency = codes.get().get(request.getCurrency().trim().toUpperCase(Locale.ROOT));
+            if (currency != null) {
+                rates.add(new RateResponse(currency.getCode(), currency.getRate(), request.getDate(), currency.getName()));
+            } else {
+                missing.add(request);
+            }
+        }
+        log.info("Batch of {} pairs over {} dates: {} resolved, {} missing, {} failed",
+                requests.size(), codesByDate.size(), rates.size(), missing.size(), failed.size());
+        return new BatchRateResponse(rates, missing, failed);
+    }
+
+    private void validate(List<RateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one (date, currency) pair is required");
+        }
+        if (requests.size() > maxPairs) {
+            throw new IllegalArgumentException("A batch must not exceed " + maxPairs + " pairs");
+        }
+        LocalDate today = LocalDate.now();
+        for (RateRequest request : requests) {
+            if (request == null || request.getDate() == null || request.getCurrency() == null
+                    || request.getCurrency().isBlank()) {
+                throw new IllegalArgumentException("Every pair needs a date and a currency");
+            }
+            if (request.getDate().isAfter(today)) {
+                throw new IllegalArgumentException("Date " + request.getDate() + " is in the future");
+            }
+        }
+    }
+
+    /**
+     * Resolve the codes of one date from cache, fetching the date from CBAR only when nothing is cached for it
+     * @return The codes found, or empty when the date could not be looked up at all
+     */
+    private Optional<Map<String, Currency>> resolveDate(LocalDate date, Set<String> codes) {
+        try {
+            Map<String, Currency> found = cacheService.getFromCache(date, codes);
+            if (!found.isEmpty() || cacheService.isCached(date)) {
+                return Optional.of(found);
+            }
+
+            Map<String, Currency> fetched = new HashMap<>();
+            for (Currency currency : cbarService.loadCurrencies(date)) {
+                String code = currency.getCode().toUpperCase(Locale.ROOT);
+                if (codes.contains(code)) {
+                    fetched.put(code, currency);
+                }
+            }
+            return Optional.of(fetched);
+        } catch (Exception e) {
+            // Not the same as "not quoted": the pairs of this date may resolve on a retry
+            log.warn("Batch lookup for {} failed: {}", date, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
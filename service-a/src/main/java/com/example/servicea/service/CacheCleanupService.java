@@ -1,33 +1,74 @@
 package com.example.servicea.service;
 
+import com.example.servicea.model.RetentionReport;
+import com.example.servicea.repository.CachedCurrencyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Retention engine for the rate cache. Dates older than the full-detail window are deleted in
+ * bounded chunks, each committed on its own with a pause in between, so the read path never
+ * waits behind one long delete. The last cached date of every month is kept for a further
+ * downsampled window before it is deleted as well. The durable store is pruned to the same dates.
+ */
 @Service
 public class CacheCleanupService {
     
     private static final Logger log = LoggerFactory.getLogger(CacheCleanupService.class);
     
-    private final CurrencyCacheService currencyCacheService;
+    // Dates deleted per id query, so the IN list stays small
+    private static final int DATES_PER_GROUP = 64;
     
-    // Keep cache data for 30 days
-    private static final int DAYS_TO_KEEP = 30;
+    private final CachedCurrencyRepository cachedCurrencyRepository;
+    private final CurrencyCacheService currencyCacheService;
+    private final RateSegmentStore segmentStore;
+    private final PublicationCalendar calendar;
+    private final int daysToKeep;
+    private final int downsampledMonths;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
     
-    public CacheCleanupService(CurrencyCacheService currencyCacheService) {
+    public CacheCleanupService(CachedCurrencyRepository cachedCurrencyRepository,
+                               CurrencyCacheService currencyCacheService,
+                               RateSegmentStore segmentStore,
+                               PublicationCalendar calendar,
+                               @Value("${cache.retention.days:30}") int daysToKeep,
+                               @Value("${cache.retention.downsampled-months:24}") int downsampledMonths,
+                               @Value("${cache.retention.chunk-size:500}") int chunkSize,
+                               @Value("${cache.retention.pause-ms:50}") long pauseMillis) {
+        this.cachedCurrencyRepository = cachedCurrencyRepository;
         this.currencyCacheService = currencyCacheService;
+        this.segmentStore = segmentStore;
+        this.calendar = calendar;
+        this.daysToKeep = daysToKeep;
+        this.downsampledMonths = Math.max(0, downsampledMonths);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMillis = Math.max(0, pauseMillis);
     }
     
     /**
      * Clean up old cache data every day at 2:00 AM
      */
-    @Scheduled(cron = "0 0 2 * * ?")
+    @Scheduled(cron = "${cache.retention.cron:0 0 2 * * ?}")
     public void cleanupOldCache() {
         log.info("Starting scheduled cache cleanup task");
         try {
-            currencyCacheService.cleanupOldCache(DAYS_TO_KEEP);
-            log.info("Scheduled cache cleanup completed successfully");
+            RetentionReport report = cleanup(daysToKeep);
+            log.info("Scheduled cache cleanup completed: {}", report);
         } catch (Exception e) {
             log.error("Error during scheduled cache cleanup: {}", e.getMessage(), e);
         }
@@ -36,13 +77,101 @@ public class CacheCleanupService {
     /**
      * Manual cleanup method that can be called via API if needed
      */
-    public void manualCleanup(int daysToKeep) {
+    public RetentionReport manualCleanup(int daysToKeep) {
         log.info("Starting manual cache cleanup for data older than {} days", daysToKeep);
+        RetentionReport report = cleanup(daysToKeep);
+        log.info("Manual cache cleanup completed: {}", report);
+        return report;
+    }
+    
+    /**
+     * Apply the retention policy with a full-detail window of the given number of days
+     */
+    public RetentionReport cleanup(int daysToKeep) {
+        if (daysToKeep < 0) {
+            throw new IllegalArgumentException("daysToKeep must not be negative");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A cache cleanup is already running");
+        }
         try {
-            currencyCacheService.cleanupOldCache(daysToKeep);
-            log.info("Manual cache cleanup completed successfully");
-        } catch (Exception e) {
-            log.error("Error during manual cache cleanup: {}", e.getMessage(), e);
+            return runCleanup(LocalDate.now().minusDays(daysToKeep));
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private RetentionReport runCleanup(LocalDate cutoffDate) {
+        long start = System.nanoTime();
+        LocalDate downsampleCutoff = cutoffDate.withDayOfMonth(1).minusMonths(downsampledMonths);
+        
+        // The durable store can hold dates the database no longer has, and would serve them again
+        TreeSet<LocalDate> dates = new TreeSet<>(cachedCurrencyRepository.findCachedDatesBefore(cutoffDate));
+        if (segmentStore.isEnabled()) {
+            dates.addAll(segmentStore.dates().headMap(cutoffDate).keySet());
+        }
+        List<LocalDate> candidates = new ArrayList<>(dates);
+        List<LocalDate> monthEnds = monthEnds(candidates, cutoffDate, downsampleCutoff);
+        List<LocalDate> toDelete = new ArrayList<>(candidates);
+        toDelete.removeAll(monthEnds);
+        
+        // Forget the dates first, so stale fallbacks land on a date still held, such as a kept month end
+        calendar.forgetPublished(toDelete);
+        int storeDatesDeleted = segmentStore.remove(toDelete);
+        currencyCacheService.evictFromMemory(cutoffDate);
+        
+        long rowsDeleted = 0;
+        int chunks = 0;
+        for (int from = 0; from < toDelete.size(); from += DATES_PER_GROUP) {
+            List<LocalDate> group = toDelete.subList(from, Math.min(from + DATES_PER_GROUP, toDelete.size()));
+            while (true) {
+                List<Long> ids = cachedCurrencyRepository.findIdsByCurrencyDateIn(group, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                rowsDeleted += cachedCurrencyRepository.deleteByIdIn(ids);
+                chunks++;
+                pause();
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Retention removed {} rows of {} dates before {} in {} chunks and {} dates from the store ({} ms); "
+                + "kept {} month-end dates since {}", rowsDeleted, toDelete.size(), cutoffDate, chunks, storeDatesDeleted,
+                durationMs, monthEnds.size(), downsampleCutoff);
+        return new RetentionReport(cutoffDate, downsampleCutoff, candidates.size(), monthEnds.size(),
+                toDelete.size(), rowsDeleted, chunks, storeDatesDeleted, durationMs);
+    }
+    
+    /**
+     * The last cached date of each complete month between the downsample cutoff and the cutoff month.
+     * The cutoff's own month is skipped: its month end is still within the full-detail window.
+     */
+    static List<LocalDate> monthEnds(List<LocalDate> dates, LocalDate cutoffDate, LocalDate downsampleCutoff) {
+        YearMonth cutoffMonth = YearMonth.from(cutoffDate);
+        Map<YearMonth, LocalDate> lastByMonth = new TreeMap<>();
+        for (LocalDate date : dates) {
+            YearMonth month = YearMonth.from(date);
+            if (date.isBefore(downsampleCutoff) || !month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            lastByMonth.merge(month, date, (a, b) -> a.isAfter(b) ? a : b);
+        }
+        return new ArrayList<>(lastByMonth.values());
+    }
+    
+    private void pause() {
+        if (pauseMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cache cleanup interrupted", e);
         }
     }
 }
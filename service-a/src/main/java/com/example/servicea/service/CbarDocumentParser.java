@@ -0,0 +1,78 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a CBAR daily rates document into currencies: per-unit rates, normalized names and
+ * resolved codes. Shared by every rate provider that serves documents in the CBAR format.
+ */
+@Component
+public class CbarDocumentParser {
+    
+    private static final Logger log = LoggerFactory.getLogger(CbarDocumentParser.class);
+    
+    private final RateMetrics metrics;
+    private final CbarXmlParser xmlParser;
+    private final CurrencyNameNormalizer nameNormalizer = new CurrencyNameNormalizer();
+    
+    public CbarDocumentParser(RateMetrics metrics) {
+        this.metrics = metrics;
+        this.xmlParser = new CbarXmlParser(this::toCurrency);
+    }
+    
+    /**
+     * Parse a CBAR document into currencies
+     */
+    public List<Currency> parse(InputStream in) throws IOException {
+        List<Currency> parsed = new ArrayList<>();
+        long start = System.nanoTime();
+        String documentDate = xmlParser.parse(in, parsed::add);
+        metrics.recordParse(System.nanoTime() - start);
+        log.info("Parsed CBAR document dated {}", documentDate);
+        return parsed;
+    }
+    
+    /**
+     * Convert a single CBAR valute to a currency
+     */
+    private Currency toCurrency(String currencyCode, String nominal, String currencyName, String value) {
+        BigDecimal exchangeRate = parseExchangeRate(value, nominal);
+        
+        // Fix encoding issues in currency name and fill in the code if CBAR omitted it
+        String fixedCurrencyName = nameNormalizer.normalize(currencyName);
+        String resolvedCode = nameNormalizer.resolveCode(currencyCode, fixedCurrencyName);
+        
+        if (log.isTraceEnabled()) {
+            log.trace("Parsed valute {} ({}): value={}, nominal={}, rate={}",
+                    resolvedCode, fixedCurrencyName, value, nominal, exchangeRate);
+        }
+        return new Currency(resolvedCode, fixedCurrencyName, exchangeRate);
+    }
+    
+    /**
+     * Parse exchange rate from CBAR value and nominal
+     * @param value The exchange rate value from CBAR
+     * @param nominal The nominal amount (usually 1, but can be "1 t.u." for precious metals)
+     * @return The rate per unit with 6 decimal places, or zero if the value cannot be parsed
+     */
+    public BigDecimal parseExchangeRate(String value, String nominal) {
+        try {
+            return FixedPointRates.toBigDecimal(FixedPointRates.parseMicros(value, nominal));
+        } catch (NumberFormatException e) {
+            log.error("NumberFormatException parsing exchange rate: value={}, nominal={}", value, nominal, e);
+            return BigDecimal.ZERO;
+        } catch (ArithmeticException e) {
+            log.error("ArithmeticException parsing exchange rate: value={}, nominal={}", value, nominal, e);
+            return BigDecimal.ZERO;
+        }
+    }
+}
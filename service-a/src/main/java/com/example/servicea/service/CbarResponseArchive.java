@@ -0,0 +1,202 @@
+package com.example.servicea.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local archive of the raw XML documents downloaded from CBAR, gzip-compressed, with the
+ * ETag/Last-Modified validators they were served with. The validators let re-fetches be
+ * conditional, and the documents can be re-parsed offline after a parser fix.
+ *
+ * <p>Layout: {@code <dir>/<yyyy>/<yyyy-MM-dd>.xml.gz} plus a {@code .properties} sidecar.</p>
+ */
+@Service
+public class CbarResponseArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(CbarResponseArchive.class);
+
+    /**
+     * An archived document and the validators it was served with
+     */
+    public record Entry(LocalDate date, Path document, String etag, String lastModified) {}
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public CbarResponseArchive(@Value("${cbar.archive.enabled:false}") boolean enabled,
+                               @Value("${cbar.archive.dir:./data/cbar-archive}") String directory) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the archived document for a date, if any
+     */
+    public Optional<Entry> get(LocalDate date) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path document = documentPath(date);
+        if (!Files.exists(document)) {
+            return Optional.empty();
+        }
+        Properties meta = new Properties();
+        Path metaPath = metaPath(date);
+        if (Files.exists(metaPath)) {
+            try (InputStream in = Files.newInputStream(metaPath)) {
+                meta.load(in);
+            } catch (IOException e) {
+                log.warn("Could not read archive metadata for {}: {}", date, e.getMessage());
+            }
+        }
+        return Optional.of(new Entry(date, document, meta.getProperty("etag"), meta.getProperty("last-modified")));
+    }
+
+    /**
+     * Open the decompressed archived document for a date
+     */
+    public InputStream open(LocalDate date) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(documentPath(date)), 8192);
+    }
+
+    /**
+     * Archived dates within a range (inclusive), ascending
+     */
+    public List<LocalDate> dates(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (!enabled) {
+            return dates;
+        }
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (Files.exists(documentPath(date))) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Wrap a response body so that every byte read from it is also compressed into the archive.
+     * Call {@link Capture#complete()} once parsing has succeeded to publish the document;
+     * closing an incomplete capture discards it.
+     */
+    public Capture capture(LocalDate date, InputStream body, String etag, String lastModified) throws IOException {
+        if (!enabled) {
+            return new Capture(body, null, null, date, etag, lastModified);
+        }
+        Files.createDirectories(documentPath(date).getParent());
+        Path temp = Files.createTempFile(documentPath(date).getParent(), date.toString(), ".tmp");
+        return new Capture(body, temp, new GZIPOutputStream(Files.newOutputStream(temp), 8192), date, etag, lastModified);
+    }
+
+    private Path documentPath(LocalDate date) {
+        return directory.resolve(String.valueOf(date.getYear())).resolve(date + ".xml.gz");
+    }
+
+    private Path metaPath(LocalDate date) {
+        return directory.resolve(String.valueOf(date.getYear())).resolve(date + ".properties");
+    }
+
+    /**
+     * Tee of a response body into a temporary gzip file
+     */
+    public final class Capture extends FilterInputStream {
+
+        private final Path temp;
+        private final OutputStream archive;
+        private final LocalDate date;
+        private final String etag;
+        private final String lastModified;
+        private boolean completed;
+
+        private Capture(InputStream body, Path temp, OutputStream archive, LocalDate date, String etag, String lastModified) {
+            super(body);
+            this.temp = temp;
+            this.archive = archive;
+            this.date = date;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0 && archive != null) {
+                archive.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0 && archive != null) {
+                archive.write(buffer, offset, n);
+            }
+            return n;
+        }
+
+        /**
+         * Drain the rest of the body and move the document and its metadata into place
+         */
+        public void complete() throws IOException {
+            if (archive == null || completed) {
+                return;
+            }
+            byte[] rest = new byte[8192];
+            while (read(rest, 0, rest.length) >= 0) {
+                // drain trailing bytes the parser did not need
+            }
+            archive.close();
+
+            Properties meta = new Properties();
+            if (etag != null) {
+                meta.setProperty("etag", etag);
+            }
+            if (lastModified != null) {
+                meta.setProperty("last-modified", lastModified);
+            }
+            meta.setProperty("fetched-at", Instant.now().toString());
+            Path metaTemp = Files.createTempFile(temp.getParent(), date.toString(), ".meta.tmp");
+            try (OutputStream out = Files.newOutputStream(metaTemp)) {
+                meta.store(out, "CBAR document " + date);
+            }
+
+            Files.move(temp, documentPath(date), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(metaTemp, metaPath(date), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            completed = true;
+            log.debug("Archived CBAR document for {} (etag={}, last-modified={})", date, etag, lastModified);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (archive != null && !completed) {
+                archive.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -1,555 +1,267 @@
 package com.example.servicea.service;
 
-import com.example.servicea.model.CbarResponse;
+import com.example.servicea.client.CbarHttpClient;
+import com.example.servicea.client.CircuitBreaker;
 import com.example.servicea.model.Currency;
-import com.example.servicea.service.CurrencyCacheService;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.example.servicea.model.DatedRates;
+import com.example.servicea.model.RateSnapshot;
+import com.example.servicea.provider.RateProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CbarService {
     
     private static final Logger log = LoggerFactory.getLogger(CbarService.class);
     
-    private final RestTemplate restTemplate;
-    private final XmlMapper xmlMapper;
+    private final RateProvider rateProvider;
+    private final CbarHttpClient httpClient;
+    private final CircuitBreaker breaker;
+    private final CbarDocumentParser documentParser;
     private final CurrencyCacheService cacheService;
-    private static final String CBAR_BASE_URL = "https://cbar.az/currencies";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private final CbarResponseArchive archive;
+    private final PublicationCalendar calendar;
+    private final RateStreamService rateStream;
+    private final SingleFlight<LocalDate, List<Currency>> cbarFetches = new SingleFlight<>();
+    private final Set<LocalDate> backgroundRefreshes = ConcurrentHashMap.newKeySet();
+    private static final int MAX_LOOKBACK_DAYS = 10;
     
-    public CbarService(CurrencyCacheService cacheService) {
-        this.restTemplate = new RestTemplate();
-        this.xmlMapper = new XmlMapper();
+    public CbarService(RateProvider rateProvider, CbarHttpClient httpClient, CircuitBreaker breaker,
+                       CbarDocumentParser documentParser, CurrencyCacheService cacheService,
+                       CbarResponseArchive archive, PublicationCalendar calendar, RateStreamService rateStream) {
+        this.rateProvider = rateProvider;
+        this.httpClient = httpClient;
+        this.breaker = breaker;
+        this.documentParser = documentParser;
         this.cacheService = cacheService;
-        // Configure XML mapper to use UTF-8
-        this.xmlMapper.configure(com.fasterxml.jackson.core.JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
-        this.xmlMapper.configure(com.fasterxml.jackson.core.JsonParser.Feature.ALLOW_COMMENTS, true);
-        // Configure for proper UTF-8 handling
-        this.xmlMapper.configure(com.fasterxml.jackson.core.JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-        this.xmlMapper.configure(com.fasterxml.jackson.core.JsonParser.Feature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER, true);
+        this.archive = archive;
+        this.calendar = calendar;
+        this.rateStream = rateStream;
     }
     
     public List<Currency> getCurrencies(String date) {
-        LocalDate localDate = LocalDate.parse(date);
-        
-        // First, check if data is available in cache
-        if (cacheService.isCached(localDate)) {
-            log.info("Currency data found in cache for date: {}", date);
-            return cacheService.getFromCache(localDate);
-        }
-        
-        // If not in cache, fetch from CBAR API
-        log.info("Currency data not found in cache, fetching from CBAR API for date: {}", date);
-        List<Currency> currencies = fetchFromCbar(date);
-        
-        // Save to cache for future use
-        if (!currencies.isEmpty()) {
-            cacheService.saveToCache(localDate, currencies);
+        return resolve(LocalDate.parse(date), true).currencies();
+    }
+    
+    /**
+     * Rates for a date and the date they were published for. A date the calendar knows CBAR does
+     * not publish goes straight to its nearest earlier publication, without probing the cache
+     * tiers for the date itself.
+     */
+    private DatedRates resolve(LocalDate localDate, boolean counted) {
+        if (!calendar.isKnownUnpublished(localDate)) {
+            // First, check if data is available in cache (memory, then database)
+            Optional<RateSnapshot> snapshot = lookup(localDate, counted);
+            if (snapshot.isPresent()) {
+                log.info("Currency data found in cache for date: {}", localDate);
+                return new DatedRates(localDate, localDate, snapshot.get().getCurrencies(), false);
+            }
         }
-        
-        return currencies;
+        return load(localDate, counted);
     }
     
     /**
-     * Fetch currencies from CBAR API
+     * Resolve the rates of a date the caller has already looked up in the cache and not found: the
+     * nearest earlier publication for a known non-publishing date, otherwise a fetch. Cache probes
+     * on the way are not counted again in the cache metrics.
      */
-    private List<Currency> fetchFromCbar(String date) {
-        try {
-            log.info("Fetching currencies from CBAR API for date: {}", date);
-            
-            // Format date for CBAR API (dd.MM.yyyy)
-            LocalDate localDate = LocalDate.parse(date);
-            String formattedDate = localDate.format(DATE_FORMATTER);
-            
-            String url = CBAR_BASE_URL + "/" + formattedDate + ".xml";
-            log.info("Fetching from URL: {}", url);
-            
-            // Create headers with UTF-8 encoding
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Accept", "application/xml;charset=UTF-8");
-            headers.set("Accept-Charset", "UTF-8");
-            headers.set("Content-Type", "application/xml;charset=UTF-8");
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            // Make request with proper encoding
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, 
-                HttpMethod.GET, 
-                entity, 
-                String.class
-            );
-            
-            String xmlResponse = response.getBody();
-            
-            if (xmlResponse == null) {
-                throw new RuntimeException("Empty response from CBAR API");
+    public List<Currency> loadCurrencies(LocalDate localDate) {
+        return load(localDate, false).currencies();
+    }
+    
+    private DatedRates load(LocalDate localDate, boolean counted) {
+        if (calendar.isKnownUnpublished(localDate)) {
+            // Dates CBAR is known not to publish are served from the nearest earlier publication
+            Optional<RateSnapshot> fallback = calendar.previousPublished(localDate)
+                    .flatMap(published -> lookup(published, counted));
+            if (fallback.isPresent()) {
+                log.info("No CBAR publication for {}, serving rates of {}", localDate, fallback.get().getDate());
+                return new DatedRates(localDate, fallback.get().getDate(), fallback.get().getCurrencies(), false);
             }
-            
-            log.info("Raw XML response length: {}", xmlResponse.length());
-            
-            CbarResponse cbarResponse = xmlMapper.readValue(xmlResponse, CbarResponse.class);
-            
-            List<Currency> currencies = new ArrayList<>();
-            
-            if (cbarResponse.getValTypes() != null) {
-                log.info("Found {} ValType sections", cbarResponse.getValTypes().size());
-                for (CbarResponse.ValType valType : cbarResponse.getValTypes()) {
-                    log.info("Processing ValType: {}", valType.getType());
-                    if (valType.getValutes() != null) {
-                        log.info("Found {} valutes in ValType: {}", valType.getValutes().size(), valType.getType());
-                        for (CbarResponse.Valute valute : valType.getValutes()) {
-                            String currencyName = valute.getName();
-                            String currencyCode = valute.getCode();
-                            BigDecimal exchangeRate = parseExchangeRate(valute.getValue(), valute.getNominal());
-                            
-                            // Log the currency name and rate for debugging
-                            log.info("Processing currency: {} (Code: {}) - Raw Value: {}, Nominal: {}, Calculated Rate: {}", 
-                                    currencyName, currencyCode, valute.getValue(), valute.getNominal(), exchangeRate);
-                            
-                            // Fix encoding issues in currency name
-                            String fixedCurrencyName = fixEncoding(currencyName);
-                            
-                            Currency currency = new Currency(currencyCode, fixedCurrencyName, exchangeRate);
-                            log.info("Created Currency object: code={}, name={}, rate={}", 
-                                    currency.getCode(), currency.getName(), currency.getRate());
-                            currencies.add(currency);
-                        }
-                    }
-                }
+        } else {
+            // If not in cache, fetch from CBAR API
+            log.info("Currency data not found in cache, fetching from CBAR API for date: {}", localDate);
+            List<Currency> currencies = getPublishedCurrencies(localDate);
+            if (!currencies.isEmpty()) {
+                return new DatedRates(localDate, localDate, currencies, false);
             }
-            
-            log.info("Successfully parsed {} currencies with exchange rates from CBAR API", currencies.size());
-            return currencies;
-            
-        } catch (Exception e) {
-            log.error("Error fetching currencies from CBAR API for date {}: {}", date, e.getMessage(), e);
-            throw new RuntimeException("Failed to fetch currencies from CBAR: " + e.getMessage(), e);
         }
+        return findEarlierPublication(localDate);
+    }
+    
+    private Optional<RateSnapshot> lookup(LocalDate date, boolean counted) {
+        return counted ? cacheService.getSnapshot(date) : cacheService.findSnapshot(date);
     }
     
     /**
-     * Get a specific currency rate, checking cache first
+     * Get the rates that apply to a date. When CBAR cannot be reached and nothing is cached for the
+     * date, the last good snapshot before it is served, marked stale, and the date is refreshed in the background.
      */
-    public Currency getCurrencyRate(String date, String currencyCode) {
-        LocalDate localDate = LocalDate.parse(date);
-        
-        // First, check if the specific currency is available in cache
-        Optional<Currency> cachedCurrency = cacheService.getFromCache(localDate, currencyCode);
-        if (cachedCurrency.isPresent()) {
-            log.info("Currency {} found in cache for date: {}", currencyCode, date);
-            return cachedCurrency.get();
-        }
-        
-        // If not in cache, fetch all currencies and cache them
-        log.info("Currency {} not found in cache, fetching all currencies from CBAR API for date: {}", currencyCode, date);
-        List<Currency> currencies = getCurrencies(date);
-        
-        // Find the specific currency
-        return currencies.stream()
-                .filter(c -> c.getCode().equalsIgnoreCase(currencyCode))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Currency not found: " + currencyCode));
+    public DatedRates getRates(LocalDate localDate) {
+        return resolveRates(localDate, true);
     }
     
     /**
-     * Parse exchange rate from CBAR value and nominal
-     * @param value The exchange rate value from CBAR
-     * @param nominal The nominal amount (usually 1, but can be "1 t.u." for precious metals)
-     * @return The parsed exchange rate
+     * Same as {@link #getRates} for a read that has already counted its own cache lookup
      */
-    private BigDecimal parseExchangeRate(String value, String nominal) {
+    public DatedRates loadRates(LocalDate localDate) {
+        return resolveRates(localDate, false);
+    }
+    
+    private DatedRates resolveRates(LocalDate localDate, boolean counted) {
         try {
-            log.info("parseExchangeRate called with value='{}', nominal='{}'", value, nominal);
-            
-            // Remove any whitespace and replace comma with dot for decimal
-            String cleanValue = value.trim().replace(",", ".");
-            String cleanNominal = nominal.trim().replace(",", ".");
-            
-            log.info("After cleaning - cleanValue='{}', cleanNominal='{}'", cleanValue, cleanNominal);
-            
-            // Extract numeric part from nominal (e.g., "1 t.u." -> "1")
-            String numericNominal = extractNumericPart(cleanNominal);
-            
-            log.info("Extracted numeric nominal: '{}'", numericNominal);
+            return resolve(localDate, counted);
             
-            BigDecimal rateValue = new BigDecimal(cleanValue);
-            BigDecimal nominalValue = new BigDecimal(numericNominal);
-            
-            log.info("Parsed values - rateValue={}, nominalValue={}", rateValue, nominalValue);
-            
-            // Calculate the rate per unit (divide by nominal)
-            log.info("About to perform division: {} / {}", rateValue, nominalValue);
-            BigDecimal result = rateValue.divide(nominalValue, 6, BigDecimal.ROUND_HALF_UP);
-            
-            log.info("Calculated rate: {}", result);
-            log.info("Rate as double: {}", result.doubleValue());
-            return result;
-            
-        } catch (NumberFormatException e) {
-            log.error("NumberFormatException parsing exchange rate: value={}, nominal={}", value, nominal, e);
-            return BigDecimal.ZERO;
-        } catch (ArithmeticException e) {
-            log.error("ArithmeticException parsing exchange rate: value={}, nominal={}", value, nominal, e);
-            return BigDecimal.ZERO;
-        } catch (Exception e) {
-            log.error("Unexpected error parsing exchange rate: value={}, nominal={}", value, nominal, e);
-            return BigDecimal.ZERO;
+        } catch (RuntimeException e) {
+            Optional<RateSnapshot> lastGood = calendar.previousPublished(localDate).flatMap(cacheService::findSnapshot);
+            if (lastGood.isEmpty()) {
+                throw e;
+            }
+            log.warn("CBAR unavailable for {} ({}), serving stale rates of {}", localDate, e.getMessage(), lastGood.get().getDate());
+            refreshInBackground(localDate);
+            return new DatedRates(localDate, lastGood.get().getDate(), lastGood.get().getCurrencies(), true);
         }
     }
     
     /**
-     * Extract numeric part from a string that may contain text
-     * @param input String like "1 t.u." or "100"
-     * @return Numeric part as string
+     * Retry a date off the request path; at most one refresh per date runs at a time
      */
-    private String extractNumericPart(String input) {
-        log.info("extractNumericPart called with input: '{}'", input);
-        
-        // Handle special case for troy ounce notation
-        if (input != null && input.trim().toLowerCase().contains("t.u.")) {
-            log.info("Detected troy ounce notation, extracting numeric part");
-            // Extract the number before "t.u."
-            String[] parts = input.trim().split("\\s+");
-            for (String part : parts) {
-                try {
-                    Double.parseDouble(part);
-                    log.info("Found numeric part for troy ounce: '{}'", part);
-                    return part;
-                } catch (NumberFormatException e) {
-                    // Continue searching
-                }
+    private void refreshInBackground(LocalDate localDate) {
+        if (!backgroundRefreshes.add(localDate)) {
+            return;
+        }
+        Thread.ofVirtual().name("cbar-refresh-" + localDate).start(() -> {
+            try {
+                List<Currency> currencies = getPublishedCurrencies(localDate);
+                log.info("Background refresh for {} loaded {} currencies", localDate, currencies.size());
+            } catch (Exception e) {
+                log.debug("Background refresh for {} failed: {}", localDate, e.getMessage());
+            } finally {
+                backgroundRefreshes.remove(localDate);
             }
-            log.info("No numeric part found in troy ounce notation, defaulting to 1");
-            return "1";
+        });
+    }
+    
+    /**
+     * Get the rates CBAR published for exactly this date, from cache or CBAR, without falling back
+     * to an earlier publication. Concurrent callers for the same date share one fetch. The cache
+     * probe is not counted in the cache metrics; callers that serve a request count their own lookup.
+     */
+    public List<Currency> getPublishedCurrencies(LocalDate localDate) {
+        Optional<RateSnapshot> snapshot = cacheService.findSnapshot(localDate);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getCurrencies();
         }
-        
-        // Remove any non-numeric characters except dots and commas
-        String numericPart = input.replaceAll("[^0-9.,]", "");
-        
-        log.info("After regex replacement: '{}'", numericPart);
-        
-        // If no numeric part found, default to "1"
-        if (numericPart.isEmpty()) {
-            log.warn("No numeric part found in nominal '{}', defaulting to 1", input);
-            return "1";
+        return cbarFetches.execute(localDate, () -> fetchAndCache(localDate));
+    }
+    
+    /**
+     * Walk back from a non-publishing date to the nearest date with rates, skipping dates already known to be empty
+     */
+    private DatedRates findEarlierPublication(LocalDate localDate) {
+        for (int i = 1; i <= MAX_LOOKBACK_DAYS; i++) {
+            LocalDate earlier = localDate.minusDays(i);
+            if (calendar.isKnownUnpublished(earlier)) {
+                continue;
+            }
+            List<Currency> currencies = getPublishedCurrencies(earlier);
+            if (!currencies.isEmpty()) {
+                log.info("No CBAR publication for {}, serving rates of {}", localDate, earlier);
+                return new DatedRates(localDate, earlier, currencies, false);
+            }
         }
-        
-        log.info("Returning numeric part: '{}'", numericPart);
-        return numericPart;
+        return new DatedRates(localDate, localDate, List.of(), false);
     }
-
+    
     /**
-     * Extracts the proper currency code from the currency name if it's not directly available.
-     * This handles cases where the code is embedded in the name (e.g., "USD (US Dollar)").
-     * @param currencyName The full name of the currency.
-     * @param currencyCode The code provided in the XML.
-     * @return The proper currency code.
+     * Fetch currencies from the rate providers and save them to cache. Runs once per date at a time.
      */
-    private String extractCurrencyCode(String currencyName, String currencyCode) {
-        // If we have a valid code, use it
-        if (currencyCode != null && !currencyCode.trim().isEmpty()) {
-            return currencyCode.trim();
+    private List<Currency> fetchAndCache(LocalDate localDate) {
+        // A previous fetch may have completed between our cache miss and acquiring the flight
+        Optional<RateSnapshot> snapshot = cacheService.findSnapshot(localDate);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getCurrencies();
         }
         
-        // Map common currency names to codes
-        String upperName = currencyName.toUpperCase();
-        if (upperName.contains("AVRO") || upperName.contains("EURO")) {
-            return "EUR";
-        } else if (upperName.contains("DOLLAR") && upperName.contains("ABŞ")) {
-            return "USD";
-        } else if (upperName.contains("FUNT") || upperName.contains("STERLİN")) {
-            return "GBP";
-        } else if (upperName.contains("RUBLU") || upperName.contains("RUSİYA")) {
-            return "RUB";
-        } else if (upperName.contains("FRANK")) {
-            return "CHF";
-        } else if (upperName.contains("KRONU") && upperName.contains("İSVEÇ")) {
-            return "SEK";
-        } else if (upperName.contains("KRONU") && upperName.contains("NORVEÇ")) {
-            return "NOK";
-        } else if (upperName.contains("KRONU") && upperName.contains("DANİMARKA")) {
-            return "DKK";
-        } else if (upperName.contains("KRONU") && upperName.contains("ÇEX")) {
-            return "CZK";
-        } else if (upperName.contains("YUAN")) {
-            return "CNY";
-        } else if (upperName.contains("YENİ")) {
-            return "JPY";
-        } else if (upperName.contains("DİRHƏMİ")) {
-            return "AED";
-        } else if (upperName.contains("DİNAR")) {
-            return "KWD";
-        } else if (upperName.contains("RİALI")) {
-            return "QAR";
-        } else if (upperName.contains("LARİ")) {
-            return "GEL";
-        } else if (upperName.contains("LEVİ")) {
-            return "BGN";
-        } else if (upperName.contains("LEVİ") && upperName.contains("BOLQARİSTAN")) {
-            return "BGN";
-        } else if (upperName.contains("LEVİ") && upperName.contains("MOLDOVA")) {
-            return "MDL";
-        } else if (upperName.contains("LEVİ") && upperName.contains("RUMINİYA")) {
-            return "RON";
-        } else if (upperName.contains("ZLO") || upperName.contains("POLŞA")) {
-            return "PLN";
-        } else if (upperName.contains("FORİNT")) {
-            return "HUF";
-        } else if (upperName.contains("SOMU") && upperName.contains("QIRĞIZ")) {
-            return "KGS";
-        } else if (upperName.contains("SOMU") && upperName.contains("ÖZBƏK")) {
-            return "UZS";
-        } else if (upperName.contains("TENGƏSİ")) {
-            return "KZT";
-        } else if (upperName.contains("QRİVNASI")) {
-            return "UAH";
-        } else if (upperName.contains("MANATI") && upperName.contains("TÜRKMƏNİSTAN")) {
-            return "TMT";
-        } else if (upperName.contains("LİRƏSİ")) {
-            return "TRY";
-        } else if (upperName.contains("RUPİSİ")) {
-            return "INR";
-        } else if (upperName.contains("RUPİSİ") && upperName.contains("PAKİSTAN")) {
-            return "PKR";
-        } else if (upperName.contains("VONU")) {
-            return "KRW";
-        } else if (upperName.contains("DİNAR") && upperName.contains("SERBİYA")) {
-            return "RSD";
-        } else if (upperName.contains("ŞEKEL")) {
-            return "ILS";
-        } else if (upperName.contains("DİNAR") && upperName.contains("KÜVEYT")) {
-            return "KWD";
-        } else if (upperName.contains("RİALI") && upperName.contains("QƏTƏR")) {
-            return "QAR";
-        } else if (upperName.contains("RİALI") && upperName.contains("SƏUDİYYƏ")) {
-            return "SAR";
-        } else if (upperName.contains("DİRHƏMİ") && upperName.contains("BƏƏ")) {
-            return "AED";
-        } else if (upperName.contains("DİNAR") && upperName.contains("BELARUS")) {
-            return "BYN";
-        } else if (upperName.contains("DİNAR") && upperName.contains("SERBİYA")) {
-            return "RSD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("SİNQAPUR")) {
-            return "SGD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("KANADA")) {
-            return "CAD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("AVSTRALİYA")) {
-            return "AUD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("YENİ ZELLANDİYA")) {
-            return "NZD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("HONQ KONQ")) {
-            return "HKD";
-        } else if (upperName.contains("DİNAR") && upperName.contains("İRAN")) {
-            return "IRR";
-        }
+        List<Currency> currencies = rateProvider.fetch(localDate);
         
-        // If no mapping found, try to extract from parentheses
-        int openParenIndex = currencyName.indexOf('(');
-        int closeParenIndex = currencyName.indexOf(')');
-        if (openParenIndex != -1 && closeParenIndex != -1 && closeParenIndex > openParenIndex) {
-            return currencyName.substring(openParenIndex + 1, closeParenIndex).trim();
+        // Save to cache for future use; remember dates CBAR has nothing for
+        if (!currencies.isEmpty()) {
+            cacheService.saveToCache(localDate, currencies);
+            calendar.markPublished(localDate);
+            rateStream.publish(localDate, currencies.size(), false);
+        } else {
+            calendar.markUnpublished(localDate);
         }
         
-        // Return the original code if nothing else works
-        return currencyCode != null ? currencyCode : "UNKNOWN";
+        return currencies;
     }
     
     /**
-     * Map known problematic currency names to their correct forms
-     * @param text The text to map
-     * @return The mapped text or null if no mapping found
+     * Statistics of CBAR fetches and the callers coalesced onto them
      */
-    private String mapCurrencyName(String text) {
-        if (text == null) {
-            return null;
-        }
-        
-        // Map known problematic currency names
-        switch (text.trim()) {
-            case "QÄ±zÄ±l":
-                return "Qızıl";
-            case "GÃ¼mÃ¼Å":
-                return "Gümüş";
-            case "Palladium":
-                return "Palladium";
-            case "Platin":
-                return "Platin";
-            case "1 Serbiya dinarA+ (RSD)":
-                return "1 Serbiya dinarı (RSD)";
-            case "1 Sinqapur dollarÄ± (SGD)":
-                return "1 Sinqapur dolları (SGD)";
-            case "1 SÉQudiyyÉO ÆrÉ bistanÄ± rialÄ± (SAR)":
-                return "1 Səudiyyə Ərəbistanı rialı (SAR)";
-            case "1 TÃ¼rk lirÉOsi (TRY)":
-                return "1 Türk lirəsi (TRY)";
-            case "1 TÃ¼rkmÉOnistan manatÄ± (TMT)":
-                return "1 Türkmənistan manatı (TMT)";
-            case "1 Ukrayna qrivnasÄ± (UAH)":
-                return "1 Ukrayna qrivnası (UAH)";
-            case "1 Yeni Zelandiya dollarÄ± (NZD)":
-                return "1 Yeni Zelandiya dolları (NZD)";
-            case "1 BÆÆ dirhÉmi (AED)":
-                return "1 BƏƏ dirhəmi (AED)";
-            case "100 QazaxÄ±stan tengÉsi (KZT)":
-                return "100 Qazaxıstan tengəsi (KZT)";
-            case "1 QÉtÉr rialÄ± (QAR)":
-                return "1 Qətər rialı (QAR)";
-            case "1 QÄ±rÄÄ±z somu (KGS)":
-                return "1 Qırğız somu (KGS)";
-            case "100 MacarÄ±stan forinti (HUF)":
-                return "100 Macarıstan forinti (HUF)";
-            case "1 Moldova leyi (MDL)":
-                return "1 Moldova leyi (MDL)";
-            case "1 NorveÃ§ kronu (NOK)":
-                return "1 Norveç kronu (NOK)";
-            case "100 ÃzbÉk somu (UZS)":
-                return "100 Özbək somu (UZS)";
-            case "100 Pakistan rupisi (PKR)":
-                return "100 Pakistan rupisi (PKR)";
-            case "1 PolÅa zlotÄ±sÄ± (PLN)":
-                return "1 Polşa zlotısı (PLN)";
-            case "1 RumÄ±niya leyi (RON)":
-                return "1 Rumıniya leyi (RON)";
-            case "100 Rusiya rublu (RUB)":
-                return "100 Rusiya rublu (RUB)";
-            case "1 Serbiya dinarÄ± (RSD)":
-                return "1 Serbiya dinarı (RSD)";
-            case "1 SÉudiyyÉ ÆrÉbistanÄ± rialÄ± (SAR)":
-                return "1 Səudiyyə Ərəbistanı rialı (SAR)";
-            case "1 SDR (BVF-nin xÃ¼susi borcalma hÃ¼quqlarÄ±) (SDR)":
-                return "1 SDR (BVF-nin xüsusi borcalma hüquqları) (SDR)";
-            case "1 Ä°ngilis funt sterlinqi (GBP)":
-                return "1 İngilis funt sterlinqi (GBP)";
-            case "1 Ä°sveÃ§ kronu (SEK)":
-                return "1 İsveç kronu (SEK)";
-            case "1 Ä°sveÃ§rÉ frankÄ± (CHF)":
-                return "1 İsveçrə frankı (CHF)";
-            case "1 Ä°srail Åekeli (ILS)":
-                return "1 İsrail Şekeli (ILS)";
-            case "1 KÃ¼veyt dinarÄ± (KWD)":
-                return "1 Küveyt dinarı (KWD)";
-            case "100 Yapon yeni (JPY)":
-                return "100 Yapon yeni (JPY)";
-            default:
-                return null;
-        }
+    public SingleFlight<LocalDate, List<Currency>> getFetchStats() {
+        return cbarFetches;
     }
     
     /**
-     * Fix encoding issues in currency names
-     * @param text The text with encoding issues
-     * @return The fixed text
+     * Outbound HTTP client metrics
      */
-    private String fixEncoding(String text) {
-        if (text == null) {
-            return null;
-        }
-        
-        // First, try to map known problematic currency names
-        String mapped = mapCurrencyName(text);
-        if (mapped != null) {
-            return mapped;
+    public Map<String, Object> getHttpStats() {
+        return httpClient.getStats();
+    }
+    
+    /**
+     * Circuit breaker guarding CBAR fetches
+     */
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+    
+    /**
+     * Index of published and non-publishing dates
+     */
+    public PublicationCalendar getCalendar() {
+        return calendar;
+    }
+    
+    /**
+     * Fetch currencies from the rate providers without consulting or populating the cache
+     */
+    public List<Currency> fetchFromCbar(LocalDate localDate) {
+        return rateProvider.fetch(localDate);
+    }
+    
+    /**
+     * Re-parse archived CBAR documents and replace the cached rates for their dates, without any network call
+     * @return The number of dates re-ingested
+     */
+    public int reingestFromArchive(LocalDate from, LocalDate to) {
+        int reingested = 0;
+        for (LocalDate date : archive.dates(from, to)) {
+            try (InputStream in = archive.open(date)) {
+                List<Currency> currencies = documentParser.parse(in);
+                if (!currencies.isEmpty()) {
+                    cacheService.replaceInCache(date, currencies);
+                    calendar.markPublished(date);
+                    rateStream.publish(date, currencies.size(), true);
+                    reingested++;
+                }
+            } catch (IOException e) {
+                log.error("Failed to re-ingest archived CBAR document for {}: {}", date, e.getMessage(), e);
+            }
         }
-        
-        // If no mapping found, apply general encoding fixes
-        
-        // Common encoding fixes for Azerbaijani characters
-        String fixed = text
-            .replace("Ä±", "ı")
-            .replace("É", "ə")
-            .replace("Å", "ş")
-            .replace("Ä", "ı")
-            .replace("ÉO", "ə")
-            .replace("A+", "ı")
-            .replace("Ã¹¼", "ü")
-            .replace("Ã¼", "ü")
-            .replace("Ã", "ü")
-            .replace("¹¼", "ü")
-            .replace("Æ", "ə")
-            .replace("O", "ə")
-            .replace("bistanÄ±", "bistanı")
-            .replace("dinarA+", "dinarı")
-            .replace("dollarÄ±", "dolları")
-            .replace("rialÄ±", "rialı")
-            .replace("lirÉOsi", "lirəsi")
-            .replace("manatÄ±", "manatı")
-            .replace("qrivnasÄ±", "qrivnası")
-            .replace("yeni", "yeni")
-            .replace("dollarÄ±", "dolları")
-            .replace("larÄ±", "ları")
-            .replace("dirhÉmi", "dirhəmi")
-            .replace("tengÉsi", "tengəsi")
-            .replace("somu", "somu")
-            .replace("forinti", "forinti")
-            .replace("levi", "levi")
-            .replace("kronu", "kronu")
-            .replace("rupisi", "rupisi")
-            .replace("dinarÄ±", "dinarı")
-            .replace("rialÄ±", "rialı")
-            .replace("vonu", "vonu")
-            .replace("sekeli", "şekeli")
-            .replace("larÄ±", "ları")
-            .replace("borcalma hÃ¼quqlarÄ±", "borcalma hüquqları")
-            .replace("xÃ¼susi", "xüsusi")
-            // Additional fixes for specific currency names
-            .replace("SÉQudiyyÉO ÆrÉ bistanÄ±", "Səudiyyə Ərəbistanı")
-            .replace("Serbiya dinarA+", "Serbiya dinarı")
-            .replace("Sinqapur dollarÄ±", "Sinqapur dolları")
-            .replace("TÃ¼rk lirÉOsi", "Türk lirəsi")
-            .replace("TÃ¼rkmÉOnistan manatÄ±", "Türkmənistan manatı")
-            .replace("Ukrayna qrivnasÄ±", "Ukrayna qrivnası")
-            .replace("Yapon yeni", "Yapon yeni")
-            .replace("Yeni Zelandiya dollarÄ±", "Yeni Zelandiya dolları")
-            .replace("BÆÆ dirhÉmi", "BƏƏ dirhəmi")
-            .replace("QazaxÄ±stan tengÉsi", "Qazaxıstan tengəsi")
-            .replace("QÄ±rÄÄ±z somu", "Qırğız somu")
-            .replace("ÃzbÉk somu", "Özbək somu")
-            .replace("Pakistan rupisi", "Pakistan rupisi")
-            .replace("PolÅa zlotÄ±sÄ±", "Polşa zlotısı")
-            .replace("RumÄ±niya leyi", "Rumıniya leyi")
-            .replace("Rusiya rublu", "Rusiya rublu")
-            .replace("Serbiya dinarÄ±", "Serbiya dinarı")
-            .replace("Sinqapur dollarÄ±", "Sinqapur dolları")
-            .replace("SÉudiyyÉ ÆrÉbistanÄ± rialÄ±", "Səudiyyə Ərəbistanı rialı")
-            .replace("SDR (BVF-nin xÃ¼susi borcalma hÃ¼quqlarÄ±)", "SDR (BVF-nin xüsusi borcalma hüquqları)")
-            .replace("Ä°ngilis funt sterlinqi", "İngilis funt sterlinqi")
-            .replace("Ä°sveÃ§ kronu", "İsveç kronu")
-            .replace("Ä°sveÃ§rÉ frankÄ±", "İsveçrə frankı")
-            .replace("Ä°srail Åekeli", "İsrail Şekeli")
-            .replace("KÃ¼veyt dinarÄ±", "Küveyt dinarı")
-            .replace("QÉtÉr rialÄ±", "Qətər rialı")
-            .replace("QÄ±rÄÄ±z somu", "Qırğız somu")
-            .replace("MacarÄ±stan forinti", "Macarıstan forinti")
-            .replace("Moldova leyi", "Moldova leyi")
-            .replace("NorveÃ§ kronu", "Norveç kronu")
-            .replace("ÃzbÉk somu", "Özbək somu")
-            .replace("PolÅa zlotÄ±sÄ±", "Polşa zlotısı")
-            .replace("RumÄ±niya leyi", "Rumıniya leyi")
-            .replace("Rusiya rublu", "Rusiya rublu")
-            .replace("Serbiya dinarÄ±", "Serbiya dinarı")
-            .replace("Sinqapur dollarÄ±", "Sinqapur dolları")
-            .replace("SÉudiyyÉ ÆrÉbistanÄ± rialÄ±", "Səudiyyə Ərəbistanı rialı")
-            .replace("TÃ¼rk lirÉOsi", "Türk lirəsi")
-            .replace("TÃ¼rkmÉOnistan manatÄ±", "Türkmənistan manatı")
-            .replace("Ukrayna qrivnasÄ±", "Ukrayna qrivnası")
-            .replace("Yapon yeni", "Yapon yeni")
-            .replace("Yeni Zelandiya dollarÄ±", "Yeni Zelandiya dolları");
-        
-        return fixed;
+        log.info("Re-ingested {} archived CBAR documents between {} and {}", reingested, from, to);
+        return reingested;
     }
 }
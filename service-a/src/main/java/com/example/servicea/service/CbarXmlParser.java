@@ -0,0 +1,97 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming pull parser for the CBAR daily rates document.
+ * Reads the response bytes directly, honouring the encoding declared in the XML prolog,
+ * and emits one {@link Currency} per {@code Valute} element without building a DTO tree.
+ */
+public class CbarXmlParser {
+
+    /**
+     * Maps the raw fields of a single {@code Valute} element to a currency
+     */
+    @FunctionalInterface
+    public interface ValuteMapper {
+        Currency map(String code, String nominal, String name, String value);
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final ValuteMapper valuteMapper;
+
+    public CbarXmlParser(ValuteMapper valuteMapper) {
+        this.valuteMapper = valuteMapper;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Parse a CBAR document, passing each currency to the sink as soon as its element closes
+     * @param in The raw response body; not closed by this method
+     * @param sink Receives the parsed currencies in document order
+     * @return The {@code Date} attribute of the document (dd.MM.yyyy), or null if absent
+     * @throws IOException If the document cannot be read or is not well-formed
+     */
+    public String parse(InputStream in, Consumer<Currency> sink) throws IOException {
+        try {
+            return parse(XML_INPUT_FACTORY.createXMLStreamReader(in), sink);
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed CBAR document: " + e.getMessage(), e);
+        }
+    }
+
+    private String parse(XMLStreamReader reader, Consumer<Currency> sink) throws XMLStreamException {
+        try {
+            String documentDate = null;
+            String code = null;
+            String nominal = null;
+            String name = null;
+            String value = null;
+            boolean inValute = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    switch (element) {
+                        case "ValCurs" -> documentDate = reader.getAttributeValue(null, "Date");
+                        case "Valute" -> {
+                            inValute = true;
+                            code = reader.getAttributeValue(null, "Code");
+                            nominal = null;
+                            name = null;
+                            value = null;
+                        }
+                        case "Code" -> { if (inValute && code == null) code = reader.getElementText(); }
+                        case "Nominal" -> { if (inValute) nominal = reader.getElementText(); }
+                        case "Name" -> { if (inValute) name = reader.getElementText(); }
+                        case "Value" -> { if (inValute) value = reader.getElementText(); }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inValute && "Valute".equals(reader.getLocalName())) {
+                    inValute = false;
+                    sink.accept(valuteMapper.map(code, nominal, name, value));
+                }
+            }
+            return documentDate;
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.CrossRateMatrix;
+import com.example.servicea.model.CrossRateResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves cross rates between any two quoted currencies from the matrix memoized on each snapshot
+ */
+@Service
+public class CrossRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(CrossRateService.class);
+
+    private final CbarService cbarService;
+    private final CurrencyCacheService cacheService;
+
+    public CrossRateService(CbarService cbarService, CurrencyCacheService cacheService) {
+        this.cbarService = cbarService;
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * Get the cross rate between two currencies on a date
+     * @throws IllegalArgumentException if either currency is not quoted on that date
+     */
+    public Optional<CrossRateResponse> getCrossRate(LocalDate date, String from, String to) {
+        return resolveSnapshot(date).map(snapshot -> {
+            CrossRateMatrix matrix = snapshot.getCrossRates();
+            int fromOrdinal = matrix.ordinal(from.trim());
+            int toOrdinal = matrix.ordinal(to.trim());
+            if (fromOrdinal < 0 || toOrdinal < 0) {
+                throw new IllegalArgumentException("Currency not quoted on " + snapshot.getDate() + ": "
+                        + (fromOrdinal < 0 ? from : to));
+            }
+            return new CrossRateResponse(matrix.getCodes().get(fromOrdinal), matrix.getCodes().get(toOrdinal),
+                    matrix.rate(fromOrdinal, toOrdinal), snapshot.getDate());
+        });
+    }
+
+    /**
+     * Get the full cross-rate matrix of a date
+     */
+    public Optional<RateSnapshot> getMatrixSnapshot(LocalDate date) {
+        return resolveSnapshot(date);
+    }
+
+    /**
+     * The snapshot whose rates apply to a date: cached, freshly fetched, or the nearest earlier publication
+     */
+    private Optional<RateSnapshot> resolveSnapshot(LocalDate date) {
+        Optional<RateSnapshot> snapshot = cacheService.getSnapshot(date);
+        if (snapshot.isPresent()) {
+            return snapshot;
+        }
+        // The lookup above is the one counted for this request
+        List<Currency> currencies = cbarService.loadCurrencies(date);
+        if (currencies.isEmpty()) {
+            return Optional.empty();
+        }
+        // A fetch publishes its snapshot; a non-publishing date resolves to the snapshot it was served from
+        return cacheService.findSnapshot(date)
+                .or(() -> cbarService.getCalendar().resolve(date).flatMap(cacheService::findSnapshot))
+                .or(() -> {
+                    log.debug("No cached snapshot behind the rates of {}, building one", date);
+                    return Optional.of(RateSnapshot.of(date, currencies));
+                });
+    }
+}
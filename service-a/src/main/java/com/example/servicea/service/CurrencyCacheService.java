@@ -2,15 +2,27 @@ package com.example.servicea.service;
 
 import com.example.servicea.model.CachedCurrency;
 import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
 import com.example.servicea.repository.CachedCurrencyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,51 +31,218 @@ public class CurrencyCacheService {
     private static final Logger log = LoggerFactory.getLogger(CurrencyCacheService.class);
     
     private final CachedCurrencyRepository cachedCurrencyRepository;
+    private final RateSnapshotStore snapshotStore;
+    private final RateSegmentStore segmentStore;
+    private final RateMetrics metrics;
     
-    public CurrencyCacheService(CachedCurrencyRepository cachedCurrencyRepository) {
+    public CurrencyCacheService(CachedCurrencyRepository cachedCurrencyRepository, RateSnapshotStore snapshotStore,
+                                RateSegmentStore segmentStore, RateMetrics metrics) {
         this.cachedCurrencyRepository = cachedCurrencyRepository;
+        this.snapshotStore = snapshotStore;
+        this.segmentStore = segmentStore;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Warm the memory tier from the durable store so a restart does not start cold
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmFromStore() {
+        if (!segmentStore.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<RateSnapshot> latest = segmentStore.readLatest(snapshotStore.getMaxDates());
+        // Publish oldest first so the newest dates are the last to be evicted
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            snapshotStore.publish(latest.get(i));
+        }
+        log.info("Warmed {} rate snapshots from the durable store in {} ms", latest.size(),
+                (System.nanoTime() - start) / 1_000_000);
     }
     
     /**
      * Check if currencies are cached for a specific date
      */
     public boolean isCached(LocalDate date) {
+        if (snapshotStore.get(date).isPresent()) {
+            log.debug("Cache check for date {}: true (memory)", date);
+            return true;
+        }
+        if (segmentStore.contains(date)) {
+            log.debug("Cache check for date {}: true (store)", date);
+            return true;
+        }
         boolean exists = cachedCurrencyRepository.existsByCurrencyDate(date);
         log.debug("Cache check for date {}: {}", date, exists);
         return exists;
     }
     
+    /**
+     * How many currencies are cached for a date, and in which tier
+     */
+    public record CachedCount(RateMetrics.Tier tier, long count) {}
+
+    /**
+     * Count the currencies cached for a date in the first tier that has them, without loading them
+     */
+    public Optional<CachedCount> countCached(LocalDate date) {
+        Optional<RateSnapshot> snapshot = snapshotStore.get(date);
+        if (snapshot.isPresent()) {
+            return Optional.of(new CachedCount(RateMetrics.Tier.MEMORY, snapshot.get().size()));
+        }
+        int stored = segmentStore.count(date);
+        if (stored > 0) {
+            return Optional.of(new CachedCount(RateMetrics.Tier.STORE, stored));
+        }
+        long rows = cachedCurrencyRepository.countByCurrencyDate(date);
+        return rows > 0 ? Optional.of(new CachedCount(RateMetrics.Tier.DATABASE, rows)) : Optional.empty();
+    }
+    
     /**
      * Get currencies from cache for a specific date
      */
     public List<Currency> getFromCache(LocalDate date) {
+        return getSnapshot(date)
+                .map(RateSnapshot::getCurrencies)
+                .orElse(List.of());
+    }
+    
+    /**
+     * Get the rate snapshot for a date, loading it from the durable store or the database
+     * into memory on a miss. Counts as one lookup in the cache metrics.
+     */
+    public Optional<RateSnapshot> getSnapshot(LocalDate date) {
+        return lookupSnapshot(date, true);
+    }
+    
+    /**
+     * Same as {@link #getSnapshot} without touching the cache metrics, for re-probes within a read
+     * that has already been counted
+     */
+    public Optional<RateSnapshot> findSnapshot(LocalDate date) {
+        return lookupSnapshot(date, false);
+    }
+    
+    private Optional<RateSnapshot> lookupSnapshot(LocalDate date, boolean counted) {
+        Optional<RateSnapshot> snapshot = snapshotStore.get(date);
+        if (snapshot.isPresent()) {
+            log.debug("Rate snapshot found in memory for date: {}", date);
+            record(counted, RateMetrics.Tier.MEMORY, true);
+            return snapshot;
+        }
+        record(counted, RateMetrics.Tier.MEMORY, false);
+        
+        snapshot = segmentStore.read(date);
+        if (snapshot.isPresent()) {
+            log.debug("Rate snapshot found in durable store for date: {}", date);
+            record(counted, RateMetrics.Tier.STORE, true);
+            return Optional.of(snapshotStore.publish(snapshot.get()));
+        }
+        if (segmentStore.isEnabled()) {
+            record(counted, RateMetrics.Tier.STORE, false);
+        }
+        
         log.debug("Retrieving currencies from cache for date: {}", date);
         List<CachedCurrency> cachedCurrencies = cachedCurrencyRepository.findByCurrencyDate(date);
+        if (cachedCurrencies.isEmpty()) {
+            record(counted, RateMetrics.Tier.DATABASE, false);
+            return Optional.empty();
+        }
+        record(counted, RateMetrics.Tier.DATABASE, true);
         
         List<Currency> currencies = cachedCurrencies.stream()
                 .map(this::convertToCurrency)
                 .collect(Collectors.toList());
         
         log.info("Retrieved {} currencies from cache for date: {}", currencies.size(), date);
-        return currencies;
+        RateSnapshot loaded = RateSnapshot.of(date, currencies);
+        segmentStore.append(loaded);
+        return Optional.of(snapshotStore.publish(loaded));
+    }
+    
+    private void record(boolean counted, RateMetrics.Tier tier, boolean hit) {
+        if (!counted) {
+            return;
+        }
+        if (hit) {
+            metrics.hit(tier);
+        } else {
+            metrics.miss(tier);
+        }
     }
     
     /**
      * Get a specific currency from cache
      */
     public Optional<Currency> getFromCache(LocalDate date, String currencyCode) {
+        // Hot path: date probe, then an array load by currency id, case-insensitive
+        Currency indexed = snapshotStore.find(date, currencyCode);
+        if (indexed != null) {
+            metrics.hit(RateMetrics.Tier.MEMORY);
+            return Optional.of(indexed);
+        }
+        Optional<RateSnapshot> snapshot = snapshotStore.get(date);
+        if (snapshot.isPresent()) {
+            // A snapshot holds every currency of its date, so a miss here is authoritative
+            metrics.hit(RateMetrics.Tier.MEMORY);
+            return snapshot.get().find(currencyCode);
+        }
+        if (segmentStore.contains(date)) {
+            return getSnapshot(date).flatMap(stored -> stored.find(currencyCode));
+        }
+        metrics.miss(RateMetrics.Tier.MEMORY);
+        
         log.debug("Retrieving currency {} from cache for date: {}", currencyCode, date);
-        Optional<CachedCurrency> cached = cachedCurrencyRepository.findByCurrencyDateAndCurrencyCode(date, currencyCode);
+        // Codes are stored upper-case, so normalize before the case-sensitive query
+        Optional<CachedCurrency> cached = cachedCurrencyRepository.findByCurrencyDateAndCurrencyCode(
+                date, currencyCode.toUpperCase(Locale.ROOT));
         
         if (cached.isPresent()) {
             log.info("Currency {} found in cache for date: {}", currencyCode, date);
+            metrics.hit(RateMetrics.Tier.DATABASE);
             return Optional.of(convertToCurrency(cached.get()));
         } else {
             log.debug("Currency {} not found in cache for date: {}", currencyCode, date);
+            metrics.miss(RateMetrics.Tier.DATABASE);
             return Optional.empty();
         }
     }
     
+    /**
+     * Get several currencies of one date from cache with a single lookup
+     * @return The currencies found, keyed by upper-case code
+     */
+    public Map<String, Currency> getFromCache(LocalDate date, Collection<String> currencyCodes) {
+        Map<String, Currency> found = new HashMap<>();
+        Optional<RateSnapshot> snapshot = snapshotStore.get(date);
+        if (snapshot.isPresent()) {
+            metrics.hit(RateMetrics.Tier.MEMORY);
+        } else if (segmentStore.contains(date)) {
+            snapshot = getSnapshot(date);
+        } else {
+            metrics.miss(RateMetrics.Tier.MEMORY);
+        }
+        if (snapshot.isPresent()) {
+            for (String code : currencyCodes) {
+                snapshot.get().find(code).ifPresent(currency -> found.put(code.toUpperCase(Locale.ROOT), currency));
+            }
+            return found;
+        }
+        
+        List<String> codes = currencyCodes.stream().map(code -> code.toUpperCase(Locale.ROOT)).toList();
+        for (CachedCurrency cached : cachedCurrencyRepository.findByCurrencyDateAndCurrencyCodeIn(date, codes)) {
+            found.put(cached.getCurrencyCode().toUpperCase(Locale.ROOT), convertToCurrency(cached));
+        }
+        if (found.isEmpty()) {
+            metrics.miss(RateMetrics.Tier.DATABASE);
+        } else {
+            metrics.hit(RateMetrics.Tier.DATABASE);
+        }
+        log.debug("Found {} of {} currencies in cache for date: {}", found.size(), codes.size(), date);
+        return found;
+    }
+    
     /**
      * Save currencies to cache
      */
@@ -76,29 +255,96 @@ public class CurrencyCacheService {
                 .collect(Collectors.toList());
         
         cachedCurrencyRepository.saveAll(cachedCurrencies);
+        RateSnapshot snapshot = RateSnapshot.of(date, currencies);
+        segmentStore.append(snapshot);
+        snapshotStore.publish(snapshot);
         log.info("Successfully saved {} currencies to cache for date: {}", currencies.size(), date);
     }
     
     /**
-     * Convert CachedCurrency to Currency
+     * Replace all cached currencies for a date, e.g. after re-parsing its source document
      */
-    private Currency convertToCurrency(CachedCurrency cached) {
-        return new Currency(cached.getCurrencyCode(), cached.getCurrencyName(), cached.getExchangeRate());
+    @Transactional
+    public void replaceInCache(LocalDate date, List<Currency> currencies) {
+        int removed = cachedCurrencyRepository.deleteByCurrencyDate(date);
+        cachedCurrencyRepository.flush();
+        log.info("Replacing {} cached currencies for date {} with {}", removed, date, currencies.size());
+        saveToCache(date, currencies);
     }
     
     /**
-     * Clean up old cached data (older than specified days)
+     * Save currencies for several dates in one transaction so inserts are sent in JDBC batches.
+     * Snapshots are not published to memory, so bulk loads do not evict hot dates.
      */
     @Transactional
-    public void cleanupOldCache(int daysToKeep) {
-        LocalDate cutoffDate = LocalDate.now().minusDays(daysToKeep);
-        log.info("Cleaning up cache data older than {} days (cutoff date: {})", daysToKeep, cutoffDate);
+    public void saveAllToCache(Map<LocalDate, List<Currency>> currenciesByDate) {
+        List<CachedCurrency> cachedCurrencies = new ArrayList<>();
+        currenciesByDate.forEach((date, currencies) -> currencies.forEach(currency ->
+                cachedCurrencies.add(new CachedCurrency(date, currency.getCode(), currency.getName(), currency.getRate()))));
         
-        try {
-            cachedCurrencyRepository.deleteByCurrencyDateBefore(cutoffDate);
-            log.info("Successfully cleaned up old cache data");
-        } catch (Exception e) {
-            log.error("Error cleaning up old cache data: {}", e.getMessage(), e);
+        cachedCurrencyRepository.saveAll(cachedCurrencies);
+        currenciesByDate.forEach((date, currencies) -> segmentStore.append(RateSnapshot.of(date, currencies)));
+        log.info("Saved {} currencies for {} dates to cache", cachedCurrencies.size(), currenciesByDate.size());
+    }
+    
+    /**
+     * Get the dates within a range (inclusive) that already have cached currencies
+     */
+    public Set<LocalDate> getCachedDates(LocalDate from, LocalDate to) {
+        Set<LocalDate> dates = new HashSet<>(cachedCurrencyRepository.findCachedDatesBetween(from, to));
+        if (segmentStore.isEnabled()) {
+            dates.addAll(segmentStore.dates().subMap(from, true, to, true).keySet());
         }
+        return dates;
+    }
+    
+    /**
+     * Get one currency's cached rates within a date range (inclusive), keyed by date in ascending order.
+     * Dates held only in the durable store are read from it without being published to memory, so a
+     * long range does not evict hot dates.
+     */
+    public NavigableMap<LocalDate, Currency> getSeries(String currencyCode, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Currency> series = new TreeMap<>();
+        for (CachedCurrency cached : cachedCurrencyRepository.findSeries(currencyCode, from, to)) {
+            series.put(cached.getCurrencyDate(), convertToCurrency(cached));
+        }
+        if (segmentStore.isEnabled()) {
+            for (LocalDate date : segmentStore.dates().subMap(from, true, to, true).keySet()) {
+                if (series.containsKey(date)) {
+                    continue;
+                }
+                Currency held = snapshotStore.find(date, currencyCode);
+                if (held != null) {
+                    series.put(date, held);
+                } else if (snapshotStore.get(date).isEmpty()) {
+                    segmentStore.read(date)
+                            .flatMap(snapshot -> snapshot.find(currencyCode))
+                            .ifPresent(currency -> series.put(date, currency));
+                }
+            }
+        }
+        log.debug("Retrieved {} cached points of {} between {} and {}", series.size(), currencyCode, from, to);
+        return series;
+    }
+    
+    /**
+     * Convert CachedCurrency to Currency
+     */
+    private Currency convertToCurrency(CachedCurrency cached) {
+        return new Currency(cached.getCurrencyCode(), cached.getCurrencyName(), cached.getExchangeRate());
+    }
+    
+    /**
+     * Get the snapshot of a date only if it is already in the memory tier, without counting a lookup
+     */
+    public Optional<RateSnapshot> peekSnapshot(LocalDate date) {
+        return snapshotStore.get(date);
+    }
+    
+    /**
+     * Drop snapshots older than a cutoff date from the memory tier
+     */
+    public void evictFromMemory(LocalDate cutoffDate) {
+        snapshotStore.evictBefore(cutoffDate);
     }
 }
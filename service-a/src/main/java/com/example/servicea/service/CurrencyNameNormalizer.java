@@ -0,0 +1,338 @@
+package com.example.servicea.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Repairs mojibake in CBAR currency names and resolves currency codes from names.
+ *
+ * <p>Names that were decoded as Latin-1/Windows-1252 instead of UTF-8 are repaired in a
+ * single left-to-right pass: lead/continuation pairs are re-decoded as the original UTF-8
+ * character, lead characters whose continuation byte was lost in transit are resolved to the
+ * Azerbaijani letter that byte must have encoded, and a small trie handles the garbled
+ * fragments seen in historical CBAR feeds. Correctly decoded names are returned as-is
+ * without allocating.</p>
+ */
+public class CurrencyNameNormalizer {
+
+    private static final String UNKNOWN_CODE = "UNKNOWN";
+
+    /**
+     * Windows-1252 characters for bytes 0x80-0x9F, indexed by {@code byte - 0x80}.
+     * Undefined positions map to the C1 control character of the same value.
+     */
+    private static final char[] CP1252_HIGH = {
+        '€', '\u0081', '‚', 'ƒ', '„', '…', '†', '‡',
+        'ˆ', '‰', 'Š', '‹', 'Œ', '\u008D', 'Ž', '\u008F',
+        '\u0090', '‘', '’', '“', '”', '•', '–', '—',
+        '˜', '™', 'š', '›', 'œ', '\u009D', 'ž', 'Ÿ'
+    };
+
+    /**
+     * Garbled fragments that are not plain double-encoding and need a literal replacement
+     */
+    private static final Trie FRAGMENTS = new Trie()
+        .add("ÉO", "ə")
+        .add("ÉQ", "ə")
+        .add("É bistan", "əbistan")
+        .add("A+", "ı");
+
+    /**
+     * Name keywords per currency code, checked in order so more specific rules win.
+     * Keywords are matched case-insensitively with Azerbaijani dotted/dotless i folded together.
+     */
+    private static final Rule[] CODE_RULES = {
+        new Rule("EUR", "AVRO"),
+        new Rule("EUR", "EURO"),
+        new Rule("USD", "ABŞ", "DOLLAR"),
+        new Rule("GBP", "STERLİN"),
+        new Rule("GBP", "İNGİLİS", "FUNT"),
+        new Rule("BYN", "BELARUS"),
+        new Rule("RUB", "RUSİYA"),
+        new Rule("CHF", "FRANK"),
+        new Rule("SEK", "İSVEÇ", "KRON"),
+        new Rule("NOK", "NORVEÇ"),
+        new Rule("DKK", "DANİMARKA"),
+        new Rule("CZK", "ÇEX"),
+        new Rule("CNY", "YUAN"),
+        new Rule("JPY", "YAPON"),
+        new Rule("AED", "DİRHƏM"),
+        new Rule("KWD", "KÜVEYT"),
+        new Rule("QAR", "QƏTƏR"),
+        new Rule("SAR", "SƏUDİYYƏ"),
+        new Rule("IRR", "İRAN"),
+        // Not "LARİ": once folded it also matches "DOLLARI", which every dollar name contains
+        new Rule("GEL", "GÜRCÜSTAN"),
+        new Rule("BGN", "BOLQARISTAN"),
+        new Rule("MDL", "MOLDOVA"),
+        new Rule("RON", "RUMINIYA"),
+        new Rule("PLN", "POLŞA"),
+        new Rule("PLN", "ZLOT"),
+        new Rule("HUF", "FORİNT"),
+        new Rule("KGS", "QIRĞIZ"),
+        new Rule("UZS", "ÖZBƏK"),
+        new Rule("KZT", "TENGƏ"),
+        new Rule("UAH", "QRİVNA"),
+        new Rule("TMT", "TÜRKMƏNİSTAN"),
+        new Rule("TRY", "LİRƏ"),
+        new Rule("PKR", "PAKİSTAN"),
+        new Rule("INR", "HİNDİSTAN"),
+        new Rule("KRW", "KOREYA"),
+        new Rule("RSD", "SERBİYA"),
+        new Rule("ILS", "ŞEKEL"),
+        new Rule("SGD", "SİNQAPUR"),
+        new Rule("CAD", "KANADA"),
+        new Rule("AUD", "AVSTRALİYA"),
+        new Rule("NZD", "ZELANDİYA"),
+        new Rule("HKD", "HONKONQ"),
+        new Rule("HKD", "HONQ KONQ"),
+        new Rule("XAU", "QIZIL"),
+        new Rule("XAG", "GÜMÜŞ"),
+        new Rule("XPT", "PLATİN"),
+        new Rule("XPD", "PALLADİUM")
+    };
+
+    /**
+     * Repair encoding damage in a currency name
+     * @param text The name as received from CBAR
+     * @return The repaired name, or the same instance if nothing needed repair
+     */
+    public String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String trimmed = text.strip();
+        int length = trimmed.length();
+        int first = firstSuspect(trimmed);
+        if (first < 0) {
+            return trimmed;
+        }
+
+        StringBuilder out = new StringBuilder(length);
+        out.append(trimmed, 0, first);
+        int i = first;
+        while (i < length) {
+            Trie.Match match = FRAGMENTS.longestMatch(trimmed, i);
+            if (match != null) {
+                out.append(match.replacement());
+                i += match.length();
+                continue;
+            }
+
+            char c = trimmed.charAt(i);
+            if (c >= 'Â' && c <= 'ß' && i + 1 < length) {
+                int continuation = continuationByte(trimmed.charAt(i + 1));
+                if (continuation >= 0) {
+                    out.append((char) (((c & 0x1F) << 6) | (continuation & 0x3F)));
+                    i += 2;
+                    continue;
+                }
+            }
+
+            char orphan = orphanLead(c, atWordStart(trimmed, i));
+            out.append(orphan != 0 ? orphan : c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Resolve the currency code for a valute, deriving it from the name when CBAR did not send one
+     * @param currencyCode The code provided in the XML, may be null or blank
+     * @param currencyName The (repaired) currency name
+     * @return The upper-case currency code, or "UNKNOWN" if it cannot be determined
+     */
+    public String resolveCode(String currencyCode, String currencyName) {
+        if (currencyCode != null && !currencyCode.isBlank()) {
+            String code = currencyCode.strip();
+            return isUpperAscii(code) ? code : code.toUpperCase(Locale.ROOT);
+        }
+        if (currencyName == null) {
+            return UNKNOWN_CODE;
+        }
+
+        // CBAR names end with the code in parentheses, e.g. "1 ABŞ dolları (USD)"
+        int close = currencyName.lastIndexOf(')');
+        int open = close > 0 ? currencyName.lastIndexOf('(', close) : -1;
+        if (open >= 0 && close - open - 1 == 3 && isUpperAscii(currencyName, open + 1, close)) {
+            return currencyName.substring(open + 1, close);
+        }
+
+        for (Rule rule : CODE_RULES) {
+            if (rule.matches(currencyName)) {
+                return rule.code;
+            }
+        }
+        return UNKNOWN_CODE;
+    }
+
+    private static int firstSuspect(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= 'Â' && c <= 'Æ') || c == 'É' || (c == '+' && i > 0 && text.charAt(i - 1) == 'A')) {
+                return c == '+' ? i - 1 : i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Map a character back to the UTF-8 continuation byte it was decoded from, or -1
+     */
+    private static int continuationByte(char c) {
+        if (c >= '\u0080' && c <= '¿') {
+            return c;
+        }
+        for (int b = 0; b < CP1252_HIGH.length; b++) {
+            if (CP1252_HIGH[b] == c) {
+                return 0x80 + b;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resolve a lead character whose continuation byte was dropped. The dropped byte was in the
+     * 0x80-0x9F control range, which leaves one candidate Azerbaijani letter per lead.
+     */
+    private static char orphanLead(char lead, boolean wordStart) {
+        return switch (lead) {
+            case 'Ã' -> 'Ö';                      // C3 96
+            case 'Ä' -> wordStart ? 'Ğ' : 'ğ';    // C4 9E / C4 9F
+            case 'Å' -> wordStart ? 'Ş' : 'ş';    // C5 9E / C5 9F
+            case 'Æ' -> 'Ə';                      // C6 8F
+            case 'É' -> 'ə';                      // C9 99
+            default -> 0;
+        };
+    }
+
+    private static boolean atWordStart(String text, int index) {
+        if (index == 0) {
+            return true;
+        }
+        char previous = text.charAt(index - 1);
+        return Character.isWhitespace(previous) || previous == '(';
+    }
+
+    private static boolean isUpperAscii(String text) {
+        return isUpperAscii(text, 0, text.length());
+    }
+
+    private static boolean isUpperAscii(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Upper-case a character for keyword matching, folding the Azerbaijani i variants together
+     */
+    private static char fold(char c) {
+        if (c == 'i' || c == 'ı' || c == 'İ') {
+            return 'I';
+        }
+        return Character.toUpperCase(c);
+    }
+
+    private static final class Rule {
+        private final String code;
+        private final char[][] keywords;
+
+        Rule(String code, String... keywords) {
+            this.code = code;
+            this.keywords = new char[keywords.length][];
+            for (int k = 0; k < keywords.length; k++) {
+                char[] folded = keywords[k].toCharArray();
+                for (int i = 0; i < folded.length; i++) {
+                    folded[i] = fold(folded[i]);
+                }
+                this.keywords[k] = folded;
+            }
+        }
+
+        boolean matches(String name) {
+            for (char[] keyword : keywords) {
+                if (!containsFolded(name, keyword)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containsFolded(String text, char[] keyword) {
+            int last = text.length() - keyword.length;
+            for (int start = 0; start <= last; start++) {
+                int i = 0;
+                while (i < keyword.length && fold(text.charAt(start + i)) == keyword[i]) {
+                    i++;
+                }
+                if (i == keyword.length) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Character trie of literal fragment replacements with longest-match lookup
+     */
+    private static final class Trie {
+
+        record Match(String replacement, int length) {}
+
+        private final Node root = new Node();
+
+        Trie add(String fragment, String replacement) {
+            Node node = root;
+            for (int i = 0; i < fragment.length(); i++) {
+                node = node.child(fragment.charAt(i), true);
+            }
+            node.match = new Match(replacement, fragment.length());
+            return this;
+        }
+
+        Match longestMatch(String text, int from) {
+            Match longest = null;
+            Node node = root;
+            for (int i = from; i < text.length(); i++) {
+                node = node.child(text.charAt(i), false);
+                if (node == null) {
+                    break;
+                }
+                if (node.match != null) {
+                    longest = node.match;
+                }
+            }
+            return longest;
+        }
+
+        private static final class Node {
+            private char[] keys = new char[0];
+            private Node[] children = new Node[0];
+            private Match match;
+
+            Node child(char key, boolean create) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] == key) {
+                        return children[i];
+                    }
+                }
+                if (!create) {
+                    return null;
+                }
+                Node node = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = node;
+                return node;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.servicea.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Interns currency codes to small dense integer ids at ingest. Three-letter ISO-style codes,
+ * which is all CBAR publishes, resolve through a 26³ slot table without allocating or
+ * upper-casing; any other code goes through a map keyed by its upper-case form.
+ */
+@Component
+public class CurrencyRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    private static final int ALPHA3_SLOTS = 26 * 26 * 26;
+
+    private final AtomicIntegerArray alpha3 = new AtomicIntegerArray(ALPHA3_SLOTS);
+    private final Map<String, Integer> others = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile String[] codes = new String[0];
+
+    public CurrencyRegistry() {
+        for (int i = 0; i < ALPHA3_SLOTS; i++) {
+            alpha3.set(i, UNKNOWN);
+        }
+    }
+
+    /**
+     * Get the id of a code, assigning the next free id if it has not been seen before
+     */
+    public int register(String code) {
+        int id = idOf(code);
+        if (id != UNKNOWN) {
+            return id;
+        }
+        lock.lock();
+        try {
+            id = idOf(code);
+            if (id != UNKNOWN) {
+                return id;
+            }
+            String canonical = code.toUpperCase(Locale.ROOT);
+            String[] next = Arrays.copyOf(codes, codes.length + 1);
+            id = codes.length;
+            next[id] = canonical;
+            // Publish the code before the id so a reader that finds the id can always resolve it
+            codes = next;
+            int slot = alpha3Slot(code);
+            if (slot >= 0) {
+                alpha3.set(slot, id);
+            } else {
+                others.put(canonical, id);
+            }
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Case-insensitive id of a code, or {@link #UNKNOWN} if it was never registered
+     */
+    public int idOf(CharSequence code) {
+        if (code == null) {
+            return UNKNOWN;
+        }
+        int slot = alpha3Slot(code);
+        if (slot >= 0) {
+            return alpha3.get(slot);
+        }
+        Integer id = others.get(code.toString().toUpperCase(Locale.ROOT));
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * Canonical upper-case code of an id
+     */
+    public String codeOf(int id) {
+        return codes[id];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Slot of a three-letter ASCII code in either case, or -1 for any other shape
+     */
+    private static int alpha3Slot(CharSequence code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = (code.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            slot = slot * 26 + letter;
+        }
+        return slot;
+    }
+}
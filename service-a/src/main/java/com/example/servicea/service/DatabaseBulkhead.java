@@ -0,0 +1,78 @@
+package com.example.servicea.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bound on concurrent JDBC work. Every connection handed out by the data source holds a permit
+ * until it is closed, so with request handling on virtual threads a burst of cache misses queues
+ * here, and fails after a short wait, rather than piling up on the connection pool for its full
+ * connection timeout. Keep the limit at or below the pool size.
+ */
+@Component
+public class DatabaseBulkhead {
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong saturated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DatabaseBulkhead(@Value("${db.bulkhead.max-concurrent:8}") int maxConcurrent,
+                            @Value("${db.bulkhead.acquire-timeout-ms:2000}") long acquireTimeoutMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("db.bulkhead.max-concurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Take a permit, waiting up to the acquire timeout
+     */
+    public void acquire() throws SQLException {
+        acquired.incrementAndGet();
+        if (permits.tryAcquire()) {
+            return;
+        }
+        saturated.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Database bulkhead saturated, no permit within " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Bulkhead metrics: permits in use and waits
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("inFlight", maxConcurrent - permits.availablePermits());
+        stats.put("acquired", acquired.get());
+        stats.put("saturatedWaits", saturated.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+}
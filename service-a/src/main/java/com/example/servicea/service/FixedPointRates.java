@@ -0,0 +1,164 @@
+package com.example.servicea.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point parsing of CBAR rates. Values and nominals are scanned character by character
+ * into {@code long} mantissas and the per-unit rate is computed in micro-units (scale 6, half-up),
+ * without intermediate Strings or BigDecimals. Convert with {@link #toBigDecimal(long)} only where
+ * a rate leaves the service.
+ */
+public final class FixedPointRates {
+
+    /**
+     * Decimal places of a micro-unit rate
+     */
+    public static final int SCALE = 6;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    // Parsed numbers are returned packed as mantissa << SCALE_BITS | scale, so no pair object is needed
+    private static final int SCALE_BITS = 5;
+    private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+
+    // Significant digits that fit in a packed mantissa
+    private static final int MAX_DIGITS = 17;
+
+    private FixedPointRates() {
+    }
+
+    /**
+     * Parse a CBAR value and nominal into the per-unit rate in micro-units.
+     * The value accepts surrounding whitespace, a sign and either {@code .} or {@code ,} as decimal
+     * separator. The nominal's number is read up to the first letter, so {@code "1 t.u."} is 1 and
+     * {@code "100"} is 100; a nominal without digits counts as 1.
+     * @throws NumberFormatException if the value is not a decimal number
+     * @throws ArithmeticException if the nominal is zero or the rate does not fit in a long
+     */
+    public static long parseMicros(CharSequence value, CharSequence nominal) {
+        if (value == null || nominal == null) {
+            throw new NumberFormatException("Missing rate value or nominal");
+        }
+        long packedValue = parseValue(value);
+        boolean negative = packedValue < 0;
+        packedValue = Math.abs(packedValue);
+        long valueMantissa = packedValue >>> SCALE_BITS;
+        int valueScale = (int) (packedValue & SCALE_MASK);
+        long packedNominal = parseNominal(nominal);
+        long nominalMantissa = packedNominal >>> SCALE_BITS;
+        int nominalScale = (int) (packedNominal & SCALE_MASK);
+        if (nominalMantissa == 0) {
+            throw new ArithmeticException("Nominal is zero");
+        }
+
+        // rate = (valueMantissa / 10^valueScale) / (nominalMantissa / 10^nominalScale), expressed in 10^-SCALE units
+        long numerator = valueMantissa;
+        long denominator = nominalMantissa;
+        int shift = SCALE + nominalScale - valueScale;
+        if (shift >= 0) {
+            numerator = Math.multiplyExact(numerator, pow10(shift));
+        } else {
+            denominator = Math.multiplyExact(denominator, pow10(-shift));
+        }
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder >= denominator - remainder) {
+            quotient++;
+        }
+        return negative ? -quotient : quotient;
+    }
+
+    /**
+     * A micro-unit rate as a BigDecimal of scale 6, for the API boundary
+     */
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+    /**
+     * Packed mantissa and scale of a value, negated when the value is negative
+     */
+    private static long parseValue(CharSequence text) {
+        int end = text.length();
+        int i = 0;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        while (end > i && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa == 0 && c == '0' && scale < 0) {
+                    digits = Math.max(digits, 1);
+                    continue;
+                }
+                if (++digits > MAX_DIGITS) {
+                    throw new NumberFormatException("Too many digits in rate value: " + text);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if ((c == '.' || c == ',') && scale < 0) {
+                scale = 0;
+            } else {
+                throw new NumberFormatException("Invalid rate value: " + text);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid rate value: " + text);
+        }
+        long packed = mantissa << SCALE_BITS | Math.max(scale, 0);
+        return negative ? -packed : packed;
+    }
+
+    /**
+     * Packed mantissa and scale of the number a nominal starts with
+     */
+    private static long parseNominal(CharSequence text) {
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    throw new NumberFormatException("Too many digits in nominal: " + text);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if ((c == '.' || c == ',') && scale < 0 && digits > 0) {
+                scale = 0;
+            } else if (Character.isLetter(c) && digits > 0) {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return 1L << SCALE_BITS;
+        }
+        return mantissa << SCALE_BITS | Math.max(scale, 0);
+    }
+
+    private static long pow10(int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Rate out of range");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.servicea.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP caching rules for rate responses. Rates published for a past date never change, so they
+ * are cacheable for a long time and marked immutable; today's rates, stand-ins for dates without
+ * a publication, and stale responses get a short window after which clients revalidate by ETag.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final long immutableMaxAgeSeconds;
+    private final long revalidateMaxAgeSeconds;
+
+    public HttpCachePolicy(@Value("${http.cache.immutable-max-age-seconds:31536000}") long immutableMaxAgeSeconds,
+                           @Value("${http.cache.revalidate-max-age-seconds:60}") long revalidateMaxAgeSeconds) {
+        this.immutableMaxAgeSeconds = immutableMaxAgeSeconds;
+        this.revalidateMaxAgeSeconds = revalidateMaxAgeSeconds;
+    }
+
+    /**
+     * Cache-Control for the rates of {@code ratesDate} served for {@code requestedDate}
+     */
+    public CacheControl cacheControl(LocalDate requestedDate, LocalDate ratesDate, boolean stale) {
+        if (stale) {
+            return CacheControl.noCache();
+        }
+        boolean finalized = ratesDate.equals(requestedDate) && requestedDate.isBefore(LocalDate.now());
+        if (finalized) {
+            return CacheControl.maxAge(immutableMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().immutable();
+        }
+        return CacheControl.maxAge(revalidateMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+    }
+
+    /**
+     * Whether an If-None-Match header matches an ETag, using the weak comparison RFC 9110 requires for it
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.servicea.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Index of the dates CBAR has published rates for, plus negative entries for dates it returned
+ * nothing for (weekends, holidays). A request for a non-publishing date is answered with a floor
+ * lookup to the nearest earlier published date instead of another call to CBAR.
+ *
+ * <p>Negative entries expire: quickly for today and later, where the document may still appear,
+ * and after a longer TTL for past dates.</p>
+ */
+@Service
+public class PublicationCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicationCalendar.class);
+
+    private static final int MAX_NEGATIVE_ENTRIES = 10_000;
+
+    private final CurrencyCacheService cacheService;
+    private final NavigableSet<LocalDate> published = new ConcurrentSkipListSet<>();
+    private final Map<LocalDate, Long> unpublished = new ConcurrentHashMap<>();
+    private final long negativeTtlNanos;
+    private final long recentNegativeTtlNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public PublicationCalendar(CurrencyCacheService cacheService,
+                               @Value("${cbar.calendar.negative-ttl-minutes:1440}") long negativeTtlMinutes,
+                               @Value("${cbar.calendar.recent-negative-ttl-minutes:10}") long recentNegativeTtlMinutes) {
+        this(cacheService, negativeTtlMinutes, recentNegativeTtlMinutes, System::nanoTime);
+    }
+
+    PublicationCalendar(CurrencyCacheService cacheService, long negativeTtlMinutes, long recentNegativeTtlMinutes,
+                        LongSupplier nanoClock) {
+        this.cacheService = cacheService;
+        this.negativeTtlNanos = TimeUnit.MINUTES.toNanos(negativeTtlMinutes);
+        this.recentNegativeTtlNanos = TimeUnit.MINUTES.toNanos(recentNegativeTtlMinutes);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Seed the published dates from the cache tiers that survive a restart
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDate today = LocalDate.now();
+        cacheService.getCachedDates(today.minusYears(10), today.plusDays(1)).forEach(this::markPublished);
+        log.info("Publication calendar seeded with {} published dates", published.size());
+    }
+
+    /**
+     * Record that CBAR has published rates for a date
+     */
+    public void markPublished(LocalDate date) {
+        published.add(date);
+        unpublished.remove(date);
+    }
+
+    /**
+     * Record that CBAR returned no rates for a date
+     */
+    public void markUnpublished(LocalDate date) {
+        if (published.contains(date)) {
+            return;
+        }
+        long ttl = date.isBefore(LocalDate.now()) ? negativeTtlNanos : recentNegativeTtlNanos;
+        unpublished.put(date, nanoClock.getAsLong() + ttl);
+        if (unpublished.size() > MAX_NEGATIVE_ENTRIES) {
+            long now = nanoClock.getAsLong();
+            unpublished.values().removeIf(expiry -> expiry - now <= 0);
+        }
+    }
+
+    /**
+     * Whether the date is known, and not yet expired, as one CBAR publishes nothing for
+     */
+    public boolean isKnownUnpublished(LocalDate date) {
+        Long expiry = unpublished.get(date);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - nanoClock.getAsLong() <= 0) {
+            unpublished.remove(date, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The published date whose rates apply to the given date: the date itself when published,
+     * the nearest earlier published date when it is known not to publish, otherwise empty
+     */
+    public Optional<LocalDate> resolve(LocalDate date) {
+        if (published.contains(date)) {
+            return Optional.of(date);
+        }
+        if (isKnownUnpublished(date)) {
+            return Optional.ofNullable(published.lower(date));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Forget published dates whose rates are no longer cached, so lookups fall back to dates still held
+     */
+    public void forgetPublished(Collection<LocalDate> dates) {
+        published.removeAll(dates);
+    }
+
+    /**
+     * Nearest published date strictly before the given date
+     */
+    public Optional<LocalDate> previousPublished(LocalDate date) {
+        return Optional.ofNullable(published.lower(date));
+    }
+
+    public int getPublishedCount() {
+        return published.size();
+    }
+
+    public int getUnpublishedCount() {
+        return unpublished.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+
+/**
+ * Currencies of one date by registry id. A lookup is a bounds check and an array load; nothing
+ * is boxed or allocated. The index is built once per snapshot and never modified, so dropping
+ * a date drops its index with it.
+ */
+final class RateIndex {
+
+    private final Currency[] byId;
+
+    private RateIndex(Currency[] byId) {
+        this.byId = byId;
+    }
+
+    /**
+     * Build the index over one snapshot, registering any code not seen before
+     */
+    static RateIndex of(RateSnapshot snapshot, CurrencyRegistry registry) {
+        int[] ids = new int[snapshot.size()];
+        int maxId = -1;
+        for (int i = 0; i < ids.length; i++) {
+            String code = snapshot.getCurrencies().get(i).getCode();
+            ids[i] = code != null ? registry.register(code) : -1;
+            maxId = Math.max(maxId, ids[i]);
+        }
+        Currency[] byId = new Currency[maxId + 1];
+        for (int i = 0; i < ids.length; i++) {
+            // The first entry for a code wins, as in RateSnapshot
+            if (ids[i] >= 0 && byId[ids[i]] == null) {
+                byId[ids[i]] = snapshot.getCurrencies().get(i);
+            }
+        }
+        return new RateIndex(byId);
+    }
+
+    /**
+     * Currency by registry id, or null
+     */
+    Currency get(int currencyId) {
+        return currencyId >= 0 && currencyId < byId.length ? byId[currencyId] : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.servicea.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the rate cache tiers and the CBAR upstream. Meters are registered once
+ * up front, so recording is a counter increment or a timer update on the request path, and the
+ * status endpoint reads the same counters instead of querying the database.
+ */
+@Component
+public class RateMetrics {
+
+    /**
+     * Cache tiers, in lookup order
+     */
+    public enum Tier { MEMORY, STORE, DATABASE }
+
+    private final Map<Tier, Counter> hits = new EnumMap<>(Tier.class);
+    private final Map<Tier, Counter> misses = new EnumMap<>(Tier.class);
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final Timer parse;
+
+    public RateMetrics(MeterRegistry registry) {
+        for (Tier tier : Tier.values()) {
+            String name = tier.name().toLowerCase(Locale.ROOT);
+            hits.put(tier, Counter.builder("rates.cache.requests")
+                    .description("Rate cache lookups by tier and result")
+                    .tag("tier", name).tag("result", "hit")
+                    .register(registry));
+            misses.put(tier, Counter.builder("rates.cache.requests")
+                    .description("Rate cache lookups by tier and result")
+                    .tag("tier", name).tag("result", "miss")
+                    .register(registry));
+        }
+        fetchSuccess = fetchTimer(registry, "success");
+        fetchFailure = fetchTimer(registry, "failure");
+        parse = Timer.builder("cbar.parse")
+                .description("Time to read and parse a CBAR XML document; bodies are parsed as they stream in")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer fetchTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("cbar.fetch")
+                .description("CBAR document fetch latency, including parsing")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void hit(Tier tier) {
+        hits.get(tier).increment();
+    }
+
+    public void miss(Tier tier) {
+        misses.get(tier).increment();
+    }
+
+    public void recordFetch(long nanos, boolean success) {
+        (success ? fetchSuccess : fetchFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParse(long nanos) {
+        parse.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counter snapshot for the status endpoint
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        double totalHits = 0;
+        for (Tier tier : Tier.values()) {
+            String name = tier.name().toLowerCase(Locale.ROOT);
+            stats.put(name + "Hits", (long) hits.get(tier).count());
+            stats.put(name + "Misses", (long) misses.get(tier).count());
+            totalHits += hits.get(tier).count();
+        }
+        // Every lookup ends either as a hit in some tier or as a database miss
+        double lookups = totalHits + misses.get(Tier.DATABASE).count();
+        stats.put("hitRatio", lookups == 0 ? 0.0 : totalHits / lookups);
+        stats.put("cbarFetches", fetchSuccess.count() + fetchFailure.count());
+        stats.put("cbarFetchMeanMs", fetchSuccess.mean(TimeUnit.MILLISECONDS));
+        stats.put("cbarParseMeanMs", parse.mean(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+}
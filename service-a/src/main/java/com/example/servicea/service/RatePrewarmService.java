@@ -0,0 +1,132 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fetches the day's rates in the background around CBAR's publish time, so that user requests
+ * are served from the cache instead of paying for the CBAR round trip. Each run retries with
+ * exponential backoff until the document shows up; a successful fetch fills every cache tier.
+ */
+@Service
+public class RatePrewarmService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatePrewarmService.class);
+
+    private final CbarService cbarService;
+    private final boolean enabled;
+    private final boolean includeTomorrow;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final ZoneId zone;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RatePrewarmService(CbarService cbarService,
+                              @Value("${cbar.prewarm.enabled:true}") boolean enabled,
+                              @Value("${cbar.prewarm.include-tomorrow:true}") boolean includeTomorrow,
+                              @Value("${cbar.prewarm.max-attempts:6}") int maxAttempts,
+                              @Value("${cbar.prewarm.initial-backoff-ms:30000}") long initialBackoffMillis,
+                              @Value("${cbar.prewarm.max-backoff-ms:600000}") long maxBackoffMillis,
+                              @Value("${cbar.prewarm.zone:Asia/Baku}") String zone) {
+        this.cbarService = cbarService;
+        this.enabled = enabled;
+        this.includeTomorrow = includeTomorrow;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.zone = ZoneId.of(zone);
+    }
+
+    /**
+     * Pre-warm once the application is up, so a restart does not leave today cold
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmOnStartup() {
+        scheduledPrewarm();
+    }
+
+    /**
+     * Pre-warm during CBAR's publish window; runs that find the dates cached return immediately
+     */
+    @Scheduled(cron = "${cbar.prewarm.cron:0 */10 9-18 * * *}", zone = "${cbar.prewarm.zone:Asia/Baku}")
+    public void scheduledPrewarm() {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Rate pre-warm already running, skipping this trigger");
+            return;
+        }
+        // Backoff sleeps happen off the shared scheduler thread
+        Thread.ofVirtual().name("cbar-prewarm").start(() -> {
+            try {
+                prewarm();
+            } catch (Exception e) {
+                log.error("Error during rate pre-warm: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Pre-warm today's (and optionally tomorrow's) rates
+     * @return Whether each date ended up cached
+     */
+    public Map<LocalDate, Boolean> prewarm() {
+        LocalDate today = LocalDate.now(zone);
+        Map<LocalDate, Boolean> result = new LinkedHashMap<>();
+        result.put(today, warm(today));
+        if (includeTomorrow) {
+            result.put(today.plusDays(1), warm(today.plusDays(1)));
+        }
+        log.info("Rate pre-warm finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Fetch a date through the regular cached path, retrying until CBAR has published it
+     */
+    boolean warm(LocalDate date) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                List<Currency> currencies = cbarService.getPublishedCurrencies(date);
+                if (!currencies.isEmpty()) {
+                    log.info("Pre-warmed {} currencies for {} (attempt {})", currencies.size(), date, attempt);
+                    return true;
+                }
+                log.info("CBAR has not published rates for {} yet (attempt {}/{})", date, attempt, maxAttempts);
+            } catch (Exception e) {
+                log.warn("Pre-warm fetch for {} failed (attempt {}/{}): {}", date, attempt, maxAttempts, e.getMessage());
+            }
+
+            if (attempt < maxAttempts) {
+                try {
+                    // Jitter keeps several instances from retrying in lockstep
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff / 4 + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+        return false;
+    }
+}
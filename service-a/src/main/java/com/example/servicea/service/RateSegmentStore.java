@@ -0,0 +1,506 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable local store of rate snapshots so a restart does not start with a cold cache.
+ *
+ * <p>Snapshots are appended to segment files ({@code segment-NNNNN.log}); each record is
+ * {@code [magic][length][payload][crc32]}. A memory-mapped index file holds one slot per
+ * calendar day with the segment and offset of the latest record for that day. At startup
+ * the index is copied into a heap map, so opening the store costs one pass over the mapped
+ * slots; the index is rebuilt from the segments if it is missing or damaged.</p>
+ *
+ * <p>Removing dates compacts the store: the remaining records are copied into fresh segments
+ * and the old segment files are deleted, so a removed date cannot come back from a rebuild.
+ * Readers hold the read side of the segment lock while they resolve and read a location, so an
+ * old segment is only closed once the reads still using it have finished.</p>
+ */
+@Service
+public class RateSegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSegmentStore.class);
+
+    private static final int RECORD_MAGIC = 0x52415445;   // "RATE"
+    private static final int INDEX_MAGIC = 0x52494458;    // "RIDX"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 16;
+    private static final long BASE_EPOCH_DAY = LocalDate.of(1990, 1, 1).toEpochDay();
+    private static final int INDEX_SLOTS = 1 << 16;
+    private static final int OFFSET_BITS = 40;
+    private static final int RECORD_OVERHEAD = 12;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final ConcurrentSkipListMap<LocalDate, Long> locations = new ConcurrentSkipListMap<>();
+    private final Map<Integer, FileChannel> segments = new ConcurrentHashMap<>();
+
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int activeSegment;
+
+    public RateSegmentStore(@Value("${cache.store.enabled:false}") boolean enabled,
+                            @Value("${cache.store.dir:./data/rate-store}") String directory,
+                            @Value("${cache.store.segment-bytes:67108864}") long segmentBytes) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        if (enabled) {
+            open();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void open() {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().matches("segment-\\d{5}\\.log")).toList()) {
+                    int id = Integer.parseInt(file.getFileName().toString().substring(8, 13));
+                    segments.put(id, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+                    activeSegment = Math.max(activeSegment, id);
+                }
+            }
+            if (activeSegment == 0) {
+                activeSegment = 1;
+                segments.put(1, openSegment(1));
+            }
+
+            boolean indexExisted = Files.exists(directory.resolve("index.dat"));
+            indexChannel = FileChannel.open(directory.resolve("index.dat"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_BYTES + (long) INDEX_SLOTS * Long.BYTES);
+
+            if (indexExisted && index.getInt(0) == INDEX_MAGIC && index.getInt(4) == INDEX_VERSION) {
+                loadIndex();
+            } else {
+                rebuildIndex();
+            }
+            recoverActiveSegment();
+            deleteUnreferencedSegments();
+
+            log.info("Opened rate store at {} with {} dates in {} segments ({} ms)", directory, locations.size(),
+                    segments.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open rate store at " + directory, e);
+        }
+    }
+
+    private FileChannel openSegment(int id) throws IOException {
+        return FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%05d.log", id));
+    }
+
+    private void loadIndex() {
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            long location = index.getLong(INDEX_HEADER_BYTES + slot * Long.BYTES);
+            if (location != 0) {
+                locations.put(LocalDate.ofEpochDay(BASE_EPOCH_DAY + slot), location);
+            }
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        log.warn("Rate store index missing or unreadable, rebuilding from segments");
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, (int) BASE_EPOCH_DAY);
+        index.putInt(12, INDEX_SLOTS);
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            index.putLong(INDEX_HEADER_BYTES + slot * Long.BYTES, 0L);
+        }
+        for (int id : segments.keySet().stream().sorted().toList()) {
+            scanSegment(id, 0);
+        }
+        index.force();
+    }
+
+    /**
+     * Index records written after the last indexed one and drop a torn record at the tail
+     */
+    private void recoverActiveSegment() throws IOException {
+        long indexedEnd = 0;
+        for (long location : locations.values()) {
+            if (segmentOf(location) == activeSegment) {
+                indexedEnd = Math.max(indexedEnd, offsetOf(location));
+            }
+        }
+        scanSegment(activeSegment, indexedEnd);
+    }
+
+    private void scanSegment(int id, long from) throws IOException {
+        FileChannel channel = segments.get(id);
+        long position = from;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while (position + RECORD_OVERHEAD <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt(4);
+            if (header.getInt(0) != RECORD_MAGIC || length <= 0 || position + RECORD_OVERHEAD + length > size) {
+                break;
+            }
+            Optional<RateSnapshot> snapshot = readRecord(channel, position);
+            if (snapshot.isEmpty()) {
+                break;
+            }
+            indexLocation(snapshot.get().getDate(), location(id, position));
+            position += RECORD_OVERHEAD + length;
+        }
+        if (position < size) {
+            log.warn("Truncating {} trailing bytes of damaged data in rate store segment {}", size - position, id);
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Append a snapshot; it replaces any earlier record for the same date
+     */
+    public void append(RateSnapshot snapshot) {
+        if (!enabled || !inRange(snapshot.getDate())) {
+            return;
+        }
+        byte[] record = encode(snapshot);
+        writeLock.lock();
+        try {
+            long location = write(record);
+            segments.get(activeSegment).force(false);
+            indexLocation(snapshot.getDate(), location);
+            log.debug("Appended rate snapshot for {} to segment {} at offset {}", snapshot.getDate(), activeSegment,
+                    offsetOf(location));
+        } catch (IOException e) {
+            log.error("Failed to append rate snapshot for {}: {}", snapshot.getDate(), e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write a record to the active segment, rolling to a new one when it is full; caller holds the write lock
+     */
+    private long write(byte[] record) throws IOException {
+        FileChannel channel = segments.get(activeSegment);
+        if (channel.size() > 0 && channel.size() + record.length > segmentBytes) {
+            channel.force(false);
+            activeSegment++;
+            channel = openSegment(activeSegment);
+            segments.put(activeSegment, channel);
+        }
+        long position = channel.size();
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        return location(activeSegment, position);
+    }
+
+    /**
+     * Remove the given dates and compact the store
+     *
+     * @return the number of stored dates removed
+     */
+    public int remove(Collection<LocalDate> dates) {
+        if (!enabled) {
+            return 0;
+        }
+        writeLock.lock();
+        try {
+            int removed = 0;
+            for (LocalDate date : dates) {
+                if (locations.remove(date) != null) {
+                    index.putLong(INDEX_HEADER_BYTES + slotOf(date) * Long.BYTES, 0L);
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                compact();
+                log.info("Removed {} dates from the rate store, {} remain in {} segments", removed, locations.size(),
+                        segments.size());
+            }
+            return removed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact rate store at " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Copy every live record into fresh segments, then delete the old ones. The index is flushed
+     * before any old segment is deleted, so a crash in between leaves only unreferenced segments,
+     * which the next open deletes.
+     */
+    private void compact() throws IOException {
+        List<Integer> oldSegments = segments.keySet().stream().sorted().toList();
+        int firstNew = activeSegment + 1;
+        activeSegment = firstNew;
+        segments.put(activeSegment, openSegment(activeSegment));
+        for (Map.Entry<LocalDate, Long> entry : locations.entrySet()) {
+            long location = entry.getValue();
+            indexLocation(entry.getKey(), write(readRaw(segments.get(segmentOf(location)), offsetOf(location))));
+        }
+        for (int id = firstNew; id <= activeSegment; id++) {
+            segments.get(id).force(false);
+        }
+        index.force();
+        // Reads that resolved an old location before the swap finish before their segment closes
+        segmentLock.writeLock().lock();
+        try {
+            for (int id : oldSegments) {
+                segments.remove(id).close();
+                Files.deleteIfExists(segmentPath(id));
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete sealed segments no index entry points into, left behind by an interrupted compaction
+     * or holding only superseded records
+     */
+    private void deleteUnreferencedSegments() throws IOException {
+        List<Integer> referenced = locations.values().stream().map(RateSegmentStore::segmentOf).distinct().toList();
+        for (int id : segments.keySet().stream().sorted().toList()) {
+            if (id != activeSegment && !referenced.contains(id)) {
+                segments.remove(id).close();
+                Files.deleteIfExists(segmentPath(id));
+                log.info("Deleted unreferenced rate store segment {}", id);
+            }
+        }
+    }
+
+    /**
+     * Read the latest snapshot stored for a date
+     */
+    public Optional<RateSnapshot> read(LocalDate date) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        segmentLock.readLock().lock();
+        try {
+            Long location = locations.get(date);
+            if (location == null) {
+                return Optional.empty();
+            }
+            return readRecord(segments.get(segmentOf(location)), offsetOf(location));
+        } catch (IOException e) {
+            log.error("Failed to read rate snapshot for {}: {}", date, e.getMessage(), e);
+            return Optional.empty();
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of currencies stored for a date, read from the record header without decoding it
+     */
+    public int count(LocalDate date) {
+        if (!enabled) {
+            return 0;
+        }
+        segmentLock.readLock().lock();
+        try {
+            Long location = locations.get(date);
+            if (location == null) {
+                return 0;
+            }
+            // [magic][length] then the payload's epoch day and currency count
+            ByteBuffer count = ByteBuffer.allocate(Short.BYTES);
+            segments.get(segmentOf(location)).read(count, offsetOf(location) + 8 + Long.BYTES);
+            return Short.toUnsignedInt(count.getShort(0));
+        } catch (IOException e) {
+            log.error("Failed to read rate snapshot size for {}: {}", date, e.getMessage(), e);
+            return 0;
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(LocalDate date) {
+        return enabled && locations.containsKey(date);
+    }
+
+    /**
+     * Stored dates in ascending order
+     */
+    public NavigableMap<LocalDate, Long> dates() {
+        return locations;
+    }
+
+    /**
+     * Read the snapshots of the most recent stored dates, newest first
+     */
+    public List<RateSnapshot> readLatest(int limit) {
+        List<RateSnapshot> latest = new ArrayList<>();
+        for (LocalDate date : locations.descendingKeySet()) {
+            if (latest.size() >= limit) {
+                break;
+            }
+            read(date).ifPresent(latest::add);
+        }
+        return latest;
+    }
+
+    private void indexLocation(LocalDate date, long location) {
+        locations.put(date, location);
+        index.putLong(INDEX_HEADER_BYTES + slotOf(date) * Long.BYTES, location);
+    }
+
+    private static boolean inRange(LocalDate date) {
+        long slot = date.toEpochDay() - BASE_EPOCH_DAY;
+        return slot >= 0 && slot < INDEX_SLOTS;
+    }
+
+    private static int slotOf(LocalDate date) {
+        return (int) (date.toEpochDay() - BASE_EPOCH_DAY);
+    }
+
+    private static long location(int segment, long offset) {
+        return ((long) segment << OFFSET_BITS) | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> OFFSET_BITS);
+    }
+
+    private static long offsetOf(long location) {
+        return location & ((1L << OFFSET_BITS) - 1);
+    }
+
+    private static byte[] encode(RateSnapshot snapshot) {
+        try {
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(snapshot.size() * 48);
+            DataOutputStream payload = new DataOutputStream(payloadBytes);
+            payload.writeLong(snapshot.getDate().toEpochDay());
+            payload.writeShort(snapshot.size());
+            for (Currency currency : snapshot.getCurrencies()) {
+                BigDecimal rate = currency.getRate() != null ? currency.getRate() : BigDecimal.ZERO;
+                payload.writeUTF(currency.getCode() != null ? currency.getCode() : "");
+                payload.writeUTF(currency.getName() != null ? currency.getName() : "");
+                payload.writeLong(rate.unscaledValue().longValueExact());
+                payload.writeByte(rate.scale());
+            }
+            byte[] body = payloadBytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + body.length);
+            record.putInt(RECORD_MAGIC).putInt(body.length).put(body).putInt((int) crc.getValue());
+            return record.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] readRaw(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, position);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + header.getInt(4));
+        while (record.hasRemaining()) {
+            if (channel.read(record, position + record.position()) < 0) {
+                throw new IOException("Truncated rate store record at offset " + position);
+            }
+        }
+        return record.array();
+    }
+
+    private static Optional<RateSnapshot> readRecord(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, position);
+        int length = header.getInt(4);
+        if (header.getInt(0) != RECORD_MAGIC || length <= 0) {
+            return Optional.empty();
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(length + 4);
+        while (body.hasRemaining()) {
+            if (channel.read(body, position + 8 + body.position()) < 0) {
+                return Optional.empty();
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, length);
+        if ((int) crc.getValue() != body.getInt(length)) {
+            return Optional.empty();
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array(), 0, length));
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        int count = in.readUnsignedShort();
+        List<Currency> currencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String code = in.readUTF();
+            String name = in.readUTF();
+            BigDecimal rate = new BigDecimal(BigInteger.valueOf(in.readLong()), in.readByte());
+            currencies.add(new Currency(code, name, rate));
+        }
+        return Optional.of(RateSnapshot.of(date, currencies));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        segmentLock.writeLock().lock();
+        try {
+            index.force();
+            indexChannel.close();
+            for (FileChannel channel : segments.values()) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Error closing rate store: {}", e.getMessage());
+        } finally {
+            segmentLock.writeLock().unlock();
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Serves one currency's rates over a date range. Cached points come from a single range
+ * query; only dates with nothing cached are fetched from CBAR, a bounded window of them at a time
+ * on virtual threads, and points are handed to the sink in date order as soon as each one is
+ * available. When the sink fails, outstanding fetches are cancelled instead of awaited.
+ */
+@Service
+public class RateSeriesService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSeriesService.class);
+
+    /**
+     * Receives series points in ascending date order
+     */
+    @FunctionalInterface
+    public interface PointSink {
+        void accept(RateResponse point) throws IOException;
+    }
+
+    private final CbarService cbarService;
+    private final CurrencyCacheService cacheService;
+    private final int maxConcurrency;
+    private final int maxDays;
+
+    public RateSeriesService(CbarService cbarService,
+                             CurrencyCacheService cacheService,
+                             @Value("${series.max-concurrency:8}") int maxConcurrency,
+                             @Value("${series.max-days:3660}") int maxDays) {
+        this.cbarService = cbarService;
+        this.cacheService = cacheService;
+        this.maxConcurrency = maxConcurrency;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Check a requested range before the response is committed
+     */
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("'to' must not be in the future");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+            throw new IllegalArgumentException("Series range must not exceed " + maxDays + " days");
+        }
+    }
+
+    /**
+     * Stream the series of a currency between two dates (inclusive)
+     * @return The number of points written
+     */
+    public int streamSeries(String currencyCode, LocalDate from, LocalDate to, PointSink sink) throws IOException {
+        validateRange(from, to);
+        String code = currencyCode.trim().toUpperCase(Locale.ROOT);
+
+        NavigableMap<LocalDate, Currency> cached = cacheService.getSeries(code, from, to);
+        Set<LocalDate> datesWithData = cacheService.getCachedDates(from, to);
+        Deque<LocalDate> missing = new ArrayDeque<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!datesWithData.contains(date)) {
+                missing.add(date);
+            }
+        }
+        log.info("Series {} {}..{}: {} cached points, {} dates to fetch", code, from, to, cached.size(), missing.size());
+
+        // At most maxConcurrency fetches are outstanding, always the next missing dates in order,
+        // so a slow or abandoned stream never has the whole range queued behind it
+        int written = 0;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Map<LocalDate, Future<Optional<Currency>>> pending = new HashMap<>();
+        try {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                while (pending.size() < maxConcurrency && !missing.isEmpty()) {
+                    LocalDate next = missing.poll();
+                    pending.put(next, executor.submit(() -> fetch(code, next)));
+                }
+                Currency currency = cached.get(date);
+                Future<Optional<Currency>> fetched = pending.remove(date);
+                if (currency == null && fetched != null) {
+                    currency = await(fetched).orElse(null);
+                }
+                if (currency != null) {
+                    sink.accept(new RateResponse(currency.getCode(), currency.getRate(), date, currency.getName()));
+                    written++;
+                }
+            }
+        } finally {
+            // Reached with fetches still outstanding only when the sink failed, e.g. the client went away
+            pending.values().forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+        return written;
+    }
+
+    private Optional<Currency> fetch(String code, LocalDate date) {
+        try {
+            return cbarService.getCurrencies(date.toString()).stream()
+                    .filter(c -> code.equalsIgnoreCase(c.getCode()))
+                    .findFirst();
+        } catch (Exception e) {
+            log.warn("Series {}: could not fetch {}: {}", code, date, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Currency> await(Future<Optional<Currency>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a series point");
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
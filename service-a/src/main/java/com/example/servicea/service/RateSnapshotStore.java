@@ -0,0 +1,104 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process tier of immutable per-date rate snapshots that sits in front of the database.
+ * Reads are a lock-free probe of a concurrent map; writers are serialized and evict the least
+ * recently published dates beyond the limit. Each date carries its own index of currencies by
+ * registry id, so publishing or evicting a date costs the same however many dates are held.
+ */
+@Service
+public class RateSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSnapshotStore.class);
+
+    private record Entry(RateSnapshot snapshot, RateIndex index) {}
+
+    private final int maxDates;
+    private final CurrencyRegistry registry;
+    private final Map<LocalDate, Entry> entries = new ConcurrentHashMap<>();
+    // Publication order for eviction, eldest first; guarded by this
+    private final LinkedHashSet<LocalDate> order = new LinkedHashSet<>();
+
+    public RateSnapshotStore(@Value("${cache.snapshot.max-dates:400}") int maxDates, CurrencyRegistry registry) {
+        if (maxDates < 1) {
+            throw new IllegalArgumentException("cache.snapshot.max-dates must be positive");
+        }
+        this.maxDates = maxDates;
+        this.registry = registry;
+    }
+
+    /**
+     * Get the snapshot for a date if it is held in memory
+     */
+    public Optional<RateSnapshot> get(LocalDate date) {
+        Entry entry = entries.get(date);
+        return entry != null ? Optional.of(entry.snapshot()) : Optional.empty();
+    }
+
+    /**
+     * Look up one currency of a date held in memory, case-insensitively and without allocating
+     * @return The currency, or null if the date is not held or does not quote the code
+     */
+    public Currency find(LocalDate date, String currencyCode) {
+        Entry entry = entries.get(date);
+        return entry != null ? entry.index().get(registry.idOf(currencyCode)) : null;
+    }
+
+    /**
+     * Publish a snapshot, replacing any previous snapshot for the same date
+     */
+    public RateSnapshot publish(RateSnapshot snapshot) {
+        // Build the index outside the lock; it only depends on the snapshot
+        Entry entry = new Entry(snapshot, RateIndex.of(snapshot, registry));
+        synchronized (this) {
+            order.remove(snapshot.getDate());
+            order.add(snapshot.getDate());
+            entries.put(snapshot.getDate(), entry);
+
+            Iterator<LocalDate> eldest = order.iterator();
+            while (order.size() > maxDates && eldest.hasNext()) {
+                LocalDate date = eldest.next();
+                eldest.remove();
+                entries.remove(date);
+                log.debug("Evicted rate snapshot for date: {}", date);
+            }
+        }
+        log.debug("Published rate snapshot for date {} with {} currencies", snapshot.getDate(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Drop all snapshots for dates before the cutoff
+     */
+    public synchronized void evictBefore(LocalDate cutoffDate) {
+        order.removeIf(date -> {
+            if (date.isBefore(cutoffDate)) {
+                entries.remove(date);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int getMaxDates() {
+        return maxDates;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.RateEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent events fan-out of snapshot publications. Each event is serialized once and the
+ * same encoded frame is queued to every subscriber. Subscribers hold no thread: a virtual
+ * thread drains a subscriber's queue only while it has frames pending, and a subscriber
+ * whose bounded queue overflows is disconnected so it reconnects and resumes from the
+ * latest event instead of holding back the others.
+ */
+@Service
+public class RateStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateStreamService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Supplier<SseEmitter> emitterFactory;
+    private final int queueSize;
+    private final Semaphore slots;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rate-stream-", 0).factory());
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keepalive").build();
+    private volatile Set<DataWithMediaType> latest;
+    private volatile boolean stopped;
+
+    @Autowired
+    public RateStreamService(ObjectMapper objectMapper,
+                             @Value("${rates.stream.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${rates.stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${rates.stream.queue-size:16}") int queueSize) {
+        this(objectMapper, () -> new SseEmitter(timeoutMillis), maxSubscribers, queueSize);
+    }
+
+    RateStreamService(ObjectMapper objectMapper, Supplier<SseEmitter> emitterFactory, int maxSubscribers, int queueSize) {
+        this.objectMapper = objectMapper;
+        this.emitterFactory = emitterFactory;
+        this.slots = new Semaphore(maxSubscribers);
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * Open a stream; the latest event, if any, is sent first so a late subscriber starts current
+     * @throws IllegalStateException if the subscriber limit is reached or the service is shutting down
+     */
+    public SseEmitter subscribe() {
+        if (stopped) {
+            throw new IllegalStateException("Rate stream is shutting down");
+        }
+        // A slot is reserved before the subscriber exists and given back exactly once on removal
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many rate stream subscribers");
+        }
+        SseEmitter emitter;
+        try {
+            emitter = emitterFactory.get();
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        Set<DataWithMediaType> current = latest;
+        if (current != null) {
+            subscriber.offer(current);
+        }
+        log.debug("Rate stream subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Push a notice that a date's snapshot was ingested, or refreshed from the archive
+     */
+    public void publish(LocalDate date, int currencies, boolean refreshed) {
+        if (stopped) {
+            return;
+        }
+        RateEvent event = new RateEvent(sequence.incrementAndGet(), date, currencies, refreshed, Instant.now());
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize rate event for {}: {}", date, e.getMessage());
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(String.valueOf(event.sequence()))
+                .name("rates")
+                .data(payload, MediaType.APPLICATION_JSON)
+                .build();
+        latest = frame;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+        log.debug("Published rate event {} for {} to {} subscribers", event.sequence(), date, subscribers.size());
+    }
+
+    /**
+     * Keep idle connections open through proxies and notice subscribers that went away
+     */
+    @Scheduled(fixedDelayString = "${rates.stream.heartbeat-ms:30000}")
+    public void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    /**
+     * Complete every open stream and stop the sender, so shutdown does not wait on client timeouts
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(5, TimeUnit.SECONDS)) {
+                sender.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sender.shutdownNow();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Subscriber and event counts
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("events", sequence.get());
+        stats.put("droppedSubscribers", dropped.get());
+        return stats;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                dropped.incrementAndGet();
+                log.debug("Rate stream subscriber too slow, disconnecting");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; the subscriber is being completed
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while ((frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A frame may have arrived after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            queue.clear();
+            // Completing waits for a send in progress, so never do it on the publishing thread
+            try {
+                sender.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+    }
+}
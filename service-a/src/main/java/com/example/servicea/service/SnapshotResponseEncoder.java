@@ -0,0 +1,109 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.EncodedResponse;
+import com.example.servicea.model.RateSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes currency lists to JSON bytes, a gzip variant and a content hash for ETags.
+ * Snapshot bodies are encoded once and kept on the snapshot, so serving one is a buffer copy.
+ */
+@Component
+public class SnapshotResponseEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    public SnapshotResponseEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The encoded body of a snapshot, built on its first request
+     */
+    public EncodedResponse encode(RateSnapshot snapshot) {
+        return snapshot.getEncodedJson(this::encode);
+    }
+
+    /**
+     * Encode a currency list that is not held in a snapshot
+     */
+    public EncodedResponse encode(List<Currency> currencies) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(currencies);
+            return new EncodedResponse(json, gzip(json), hash(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize currencies", e);
+        }
+    }
+
+    /**
+     * Whether an Accept-Encoding header admits gzip (explicitly or through {@code *}) with a non-zero quality
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Content hash of a body: the first 128 bits of its SHA-256, hex-encoded
+     */
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                // Compressed once per snapshot, so spend the CPU on the smallest body
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
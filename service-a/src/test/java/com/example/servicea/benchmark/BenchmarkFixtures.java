@@ -0,0 +1,36 @@
+package com.example.servicea.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded CBAR documents and the runner shared by the benchmarks
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * The recorded CBAR document of 15.01.2024, as served
+     */
+    static byte[] cbarDocument() throws IOException {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/cbar/15.01.2024.xml")) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Run one benchmark class from an IDE with the GC profiler, which reports {@code gc.alloc.rate.norm}
+     */
+    static void run(Class<?> benchmark) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(benchmark.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
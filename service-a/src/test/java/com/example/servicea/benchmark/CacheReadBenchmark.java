@@ -0,0 +1,99 @@
+package com.example.servicea.benchmark;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import com.example.servicea.repository.CachedCurrencyRepository;
+import com.example.servicea.service.CbarDocumentParser;
+import com.example.servicea.service.CurrencyCacheService;
+import com.example.servicea.service.CurrencyRegistry;
+import com.example.servicea.service.RateMetrics;
+import com.example.servicea.service.RateSegmentStore;
+import com.example.servicea.service.RateSnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads through {@link CurrencyCacheService} once the memory tier is warm: one rate, a
+ * handful of rates and a whole snapshot, on a year of dates built from the recorded CBAR
+ * document. The repository throws if touched, so any fall-through to the database shows up
+ * as a failure rather than a slow number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@Threads(4)
+public class CacheReadBenchmark {
+
+    private static final int DATES = 365;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+    private CurrencyCacheService cacheService;
+    private String[] codes;
+    private List<String> basket;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Currency> currencies = new CbarDocumentParser(new RateMetrics(new SimpleMeterRegistry()))
+                .parse(new ByteArrayInputStream(BenchmarkFixtures.cbarDocument()));
+        codes = currencies.stream().map(Currency::getCode).toArray(String[]::new);
+        basket = List.of("USD", "EUR", "GBP", "RUB", "TRY");
+
+        RateSnapshotStore snapshotStore = new RateSnapshotStore(DATES, new CurrencyRegistry());
+        for (int i = 0; i < DATES; i++) {
+            snapshotStore.publish(RateSnapshot.of(FIRST_DATE.plusDays(i), currencies));
+        }
+        CachedCurrencyRepository repository = (CachedCurrencyRepository) Proxy.newProxyInstance(
+                CachedCurrencyRepository.class.getClassLoader(), new Class<?>[] {CachedCurrencyRepository.class},
+                (proxy, method, args) -> {
+                    throw new IllegalStateException("Benchmark read fell through to the database: " + method.getName());
+                });
+        cacheService = new CurrencyCacheService(repository, snapshotStore,
+                new RateSegmentStore(false, "unused", 0), new RateMetrics(new SimpleMeterRegistry()));
+    }
+
+    private LocalDate randomDate() {
+        return FIRST_DATE.plusDays(ThreadLocalRandom.current().nextInt(DATES));
+    }
+
+    @Benchmark
+    public Optional<Currency> singleRate() {
+        return cacheService.getFromCache(randomDate(), codes[ThreadLocalRandom.current().nextInt(codes.length)]);
+    }
+
+    @Benchmark
+    public Map<String, Currency> basketOfRates() {
+        return cacheService.getFromCache(randomDate(), basket);
+    }
+
+    @Benchmark
+    public Optional<RateSnapshot> wholeSnapshot() {
+        return cacheService.getSnapshot(randomDate());
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkFixtures.run(CacheReadBenchmark.class);
+    }
+}
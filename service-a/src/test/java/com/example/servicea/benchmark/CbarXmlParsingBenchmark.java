@@ -0,0 +1,79 @@
+package com.example.servicea.benchmark;
+
+import com.example.servicea.model.CbarResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarXmlParser;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the buffered XmlMapper path with the streaming StAX parser on a recorded CBAR document.
+ * Run {@link #main} and read {@code gc.alloc.rate.norm} for the bytes allocated per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class CbarXmlParsingBenchmark {
+
+    private byte[] document;
+    private XmlMapper xmlMapper;
+    private CbarXmlParser streamingParser;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = BenchmarkFixtures.cbarDocument();
+        xmlMapper = new XmlMapper();
+        streamingParser = new CbarXmlParser(CbarXmlParsingBenchmark::toCurrency);
+    }
+
+    private static Currency toCurrency(String code, String nominal, String name, String value) {
+        return new Currency(code, name, new BigDecimal(value));
+    }
+
+    /**
+     * The previous ingestion path: body buffered into a String, bound to the DTO tree, then mapped
+     */
+    @Benchmark
+    public List<Currency> bufferedXmlMapper() throws IOException {
+        String body = new String(document, StandardCharsets.ISO_8859_1);
+        CbarResponse response = xmlMapper.readValue(body, CbarResponse.class);
+        List<Currency> currencies = new ArrayList<>();
+        for (CbarResponse.ValType valType : response.getValTypes()) {
+            for (CbarResponse.Valute valute : valType.getValutes()) {
+                currencies.add(toCurrency(valute.getCode(), valute.getNominal(), valute.getName(), valute.getValue()));
+            }
+        }
+        return currencies;
+    }
+
+    @Benchmark
+    public List<Currency> streamingStax() throws Exception {
+        List<Currency> currencies = new ArrayList<>();
+        streamingParser.parse(new ByteArrayInputStream(document), currencies::add);
+        return currencies;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkFixtures.run(CbarXmlParsingBenchmark.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.servicea.benchmark;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarDocumentParser;
+import com.example.servicea.service.CbarXmlParser;
+import com.example.servicea.service.CurrencyNameNormalizer;
+import com.example.servicea.service.RateMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-document cost of the ingestion steps after XML parsing: rate/nominal parsing, name
+ * normalization, and the whole document through {@link CbarDocumentParser}. The raw valute
+ * fields come from the recorded CBAR fixture, so every benchmark sees the real mix of
+ * nominals ({@code 1}, {@code 100}, {@code 1 t.u.}) and mis-encoded names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class RateParsingBenchmark {
+
+    private record Valute(String code, String nominal, String name, String value) {}
+
+    private byte[] document;
+    private List<Valute> valutes;
+    private CbarDocumentParser documentParser;
+    private CurrencyNameNormalizer nameNormalizer;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = BenchmarkFixtures.cbarDocument();
+        valutes = new ArrayList<>();
+        new CbarXmlParser((code, nominal, name, value) -> {
+            valutes.add(new Valute(code, nominal, name, value));
+            return new Currency(code, name, BigDecimal.ZERO);
+        }).parse(new ByteArrayInputStream(document), currency -> { });
+        documentParser = new CbarDocumentParser(new RateMetrics(new SimpleMeterRegistry()));
+        nameNormalizer = new CurrencyNameNormalizer();
+    }
+
+    /**
+     * {@code parseExchangeRate}, including {@code extractNumericPart}, for every valute of the document
+     */
+    @Benchmark
+    public void parseExchangeRates(Blackhole blackhole) {
+        for (Valute valute : valutes) {
+            blackhole.consume(documentParser.parseExchangeRate(valute.value(), valute.nominal()));
+        }
+    }
+
+    /**
+     * Encoding repair of every currency name of the document
+     */
+    @Benchmark
+    public void normalizeNames(Blackhole blackhole) {
+        for (Valute valute : valutes) {
+            blackhole.consume(nameNormalizer.normalize(valute.name()));
+        }
+    }
+
+    /**
+     * The full ingestion of one document: XML, rates, names and codes
+     */
+    @Benchmark
+    public List<Currency> parseDocument() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(document)) {
+            return documentParser.parse(in);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkFixtures.run(RateParsingBenchmark.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.servicea.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CbarHttpClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            calls.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            byte[] body = "<ValCurs/>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/flaky", exchange -> {
+            if (calls.incrementAndGet() < 3) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "recovered".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(new byte[4096]);
+            }
+        });
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write('<');
+            out.flush();
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/slow-unavailable", exchange -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private CbarHttpClient client(int maxRetries, long maxResponseBytes) {
+        return new CbarHttpClient(1000, 500, maxRetries, 1, maxResponseBytes, 4, 100);
+    }
+
+    @Test
+    void testGet_PassesStatusHeadersAndBody() throws IOException {
+        // When
+        String result = client(0, 1024).get(baseUrl + "/ok", Map.of("Accept", "application/xml"),
+            (status, headers, body) -> status + " " + headers.firstValue("ETag").orElseThrow() + " "
+                + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals("200 \"v1\" <ValCurs/>", result);
+    }
+
+    @Test
+    void testGet_RetriesServerErrors() throws IOException {
+        // Given
+        CbarHttpClient client = client(3, 1024);
+
+        // When
+        String result = client.get(baseUrl + "/flaky", Map.of(),
+            (status, headers, body) -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals("recovered", result);
+        assertEquals(3, calls.get());
+        assertEquals(2L, client.getStats().get("retries"));
+    }
+
+    @Test
+    void testGet_ServerErrorAfterRetriesIsHandedToHandler() throws IOException {
+        // When
+        int status = client(1, 1024).get(baseUrl + "/flaky", Map.of(), (code, headers, body) -> code);
+
+        // Then
+        assertEquals(503, status);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testGet_RejectsOversizedBody() {
+        // When
+        IOException e = assertThrows(IOException.class, () -> client(0, 1024).get(baseUrl + "/large", Map.of(),
+            (status, headers, body) -> body.readAllBytes()));
+
+        // Then
+        assertTrue(e.getMessage().contains("exceeds the limit"));
+    }
+
+    @Test
+    void testGet_StalledBodyHitsDeadline() {
+        // Given
+        CbarHttpClient client = client(0, 1024);
+
+        // When / Then
+        assertThrows(HttpTimeoutException.class, () -> client.get(baseUrl + "/stalled", Map.of(),
+            (status, headers, body) -> body.readAllBytes()));
+        assertEquals(1L, client.getStats().get("failures"));
+    }
+
+    @Test
+    void testGet_RetriesShareOneDeadline() {
+        // Given
+        CbarHttpClient client = client(2, 1024);
+        long start = System.nanoTime();
+
+        // When / Then
+        assertThrows(HttpTimeoutException.class, () -> client.get(baseUrl + "/slow-unavailable", Map.of(),
+            (status, headers, body) -> status));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 800, "took " + elapsedMillis + " ms against a 500 ms deadline");
+    }
+
+    @Test
+    void testGet_SkipsRetryWhenBackoffExceedsRemainingBudget() throws IOException {
+        // Given
+        CbarHttpClient client = new CbarHttpClient(1000, 500, 2, 1000, 1024, 4, 100);
+
+        // When
+        int status = client.get(baseUrl + "/flaky", Map.of(), (code, headers, body) -> code);
+
+        // Then
+        assertEquals(503, status);
+        assertEquals(1, calls.get());
+        assertEquals(0L, client.getStats().get("retries"));
+    }
+}
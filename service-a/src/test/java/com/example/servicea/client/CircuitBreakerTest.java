@@ -0,0 +1,113 @@
+package com.example.servicea.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testOnFailure_OpensAfterThresholdAndRejects() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, 5000, now::get);
+
+        // When
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    void testAllowRequest_HalfOpenLetsOneTrialThrough() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, 5000, now::get);
+        breaker.onFailure();
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // Then
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void testOnFailure_FailedTrialReopens() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, 5000, now::get);
+        breaker.onFailure();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.allowRequest());
+
+        // When
+        breaker.onFailure();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void testOnCancelled_ReleasesHalfOpenTrialWithoutCountingFailure() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, 5000, now::get);
+        breaker.onFailure();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.allowRequest());
+
+        // When
+        breaker.onCancelled();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void testOnCancelled_ClosedBreakerIsUnaffected() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, 5000, now::get);
+
+        // When
+        breaker.onCancelled();
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void testAllowRequest_LostTrialTimesOut() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, 5000, now::get);
+        breaker.onFailure();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+
+        // Then
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.servicea.config;
+
+import com.example.servicea.service.DatabaseBulkhead;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkheadDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 20);
+    private final BulkheadDataSource dataSource = new BulkheadDataSource(target, bulkhead);
+
+    @Test
+    void testGetConnection_PermitsExhausted_FailsFastUntilClosed() throws Exception {
+        // Given
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        Connection held = dataSource.getConnection();
+
+        // When
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        held.close();
+        held.close();
+        Connection next = dataSource.getConnection();
+
+        // Then
+        assertSame(connection, ((ConnectionProxy) next).getTargetConnection());
+        verify(connection, times(2)).close();
+        verify(target, times(2)).getConnection();
+        assertEquals(1, bulkhead.getStats().get("inFlight"));
+        assertEquals(1L, bulkhead.getStats().get("rejected"));
+    }
+
+    @Test
+    void testGetConnection_TargetFails_PermitReleased() throws Exception {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool closed"));
+
+        // When
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        // Then
+        assertEquals(0, bulkhead.getStats().get("inFlight"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.servicea.config;
+
+import com.example.servicea.model.CbarResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsTest {
+
+    @Test
+    void testRegisterHints_JacksonBoundTypes_ReflectivelyAccessible() throws Exception {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CbarResponse.Valute.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Currency.class.getMethod("getRate")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RateEvent.class.getMethod("publishedAt")).test(hints));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.servicea.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateMatrixTest {
+
+    private final List<Currency> currencies = List.of(
+        new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000")),
+        new Currency("EUR", "1 Avro", new BigDecimal("1.8700")),
+        new Currency("XXX", "Broken", BigDecimal.ZERO),
+        new Currency("JPY", "1 Yapon yeni", new BigDecimal("0.011700")));
+
+    @Test
+    void testOf_IncludesAznAndSkipsUnpricedCurrencies() {
+        // When
+        CrossRateMatrix matrix = CrossRateMatrix.of(currencies);
+
+        // Then
+        assertEquals(List.of("AZN", "USD", "EUR", "JPY"), matrix.getCodes());
+        assertEquals(-1, matrix.ordinal("XXX"));
+        assertEquals(0, matrix.ordinal("azn"));
+    }
+
+    @Test
+    void testRate_CrossesThroughAzn() {
+        // Given
+        CrossRateMatrix matrix = CrossRateMatrix.of(currencies);
+        int usd = matrix.ordinal("USD");
+        int eur = matrix.ordinal("EUR");
+        int azn = matrix.ordinal("AZN");
+
+        // Then
+        assertEquals(1.87 / 1.70, matrix.rate(eur, usd), 1e-12);
+        assertEquals(1.70, matrix.rate(usd, azn), 1e-12);
+        assertEquals(1 / 1.70, matrix.rate(azn, usd), 1e-12);
+        assertEquals(1.0, matrix.rate(usd, usd), 0.0);
+        assertEquals(1.0, matrix.rate(eur, usd) * matrix.rate(usd, eur), 1e-12);
+    }
+
+    @Test
+    void testGetCrossRates_MemoizedPerSnapshot() {
+        // Given
+        RateSnapshot snapshot = RateSnapshot.of(LocalDate.of(2024, 1, 15), currencies);
+
+        // Then
+        assertSame(snapshot.getCrossRates(), snapshot.getCrossRates());
+        assertEquals(4, snapshot.getCrossRates().toRows().length);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.client.CbarHttpClient;
+import com.example.servicea.client.CircuitBreaker;
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarDocumentParser;
+import com.example.servicea.service.CbarResponseArchive;
+import com.example.servicea.service.RateMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompositeRateProviderTest {
+
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+    private final List<Currency> rates = List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000")));
+
+    private static RateProvider provider(String name, Function<LocalDate, List<Currency>> fetch) {
+        return new RateProvider() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Currency> fetch(LocalDate date) {
+                return fetch.apply(date);
+            }
+        };
+    }
+
+    @Test
+    void testFetch_FirstAnswerWins_SlowProviderIsCancelled() throws Exception {
+        // Given
+        CountDownLatch cancelled = new CountDownLatch(1);
+        RateProvider slow = provider("slow", d -> {
+            try {
+                Thread.sleep(10_000);
+                return List.of();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+        CompositeRateProvider composite = new CompositeRateProvider(List.of(slow, provider("fast", d -> rates)));
+
+        // When
+        List<Currency> result = composite.fetch(date);
+
+        // Then
+        assertEquals(rates, result);
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFetch_CancelledCbarTrial_ReleasesHalfOpenBreaker() throws Exception {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 60_000);
+        breaker.onFailure();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CbarHttpClient httpClient = mock(CbarHttpClient.class);
+        when(httpClient.get(any(), any(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+                return List.of();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled.countDown();
+                throw new IOException("Interrupted while calling CBAR", e);
+            }
+        });
+        RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+        RateProvider cbar = new CbarRateProvider(httpClient, breaker, mock(CbarResponseArchive.class),
+            new CbarDocumentParser(metrics), metrics, "https://cbar.az/currencies");
+        CompositeRateProvider composite = new CompositeRateProvider(List.of(cbar, provider("directory", d -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return rates;
+        })));
+
+        // When
+        List<Currency> result = composite.fetch(date);
+
+        // Then
+        assertEquals(rates, result);
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (breaker.getState() == CircuitBreaker.State.HALF_OPEN && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void testFetch_EmptyAnswer_WaitsForProviderWithRates() {
+        // Given
+        RateProvider empty = provider("empty", d -> List.of());
+        RateProvider slower = provider("slower", d -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return rates;
+        });
+        CompositeRateProvider composite = new CompositeRateProvider(List.of(empty, slower));
+
+        // When
+        List<Currency> result = composite.fetch(date);
+
+        // Then
+        assertEquals(rates, result);
+    }
+
+    @Test
+    void testFetch_AllFail_RethrowsFirstFailureWithOthersSuppressed() {
+        // Given
+        CompositeRateProvider composite = new CompositeRateProvider(List.of(
+            provider("a", d -> { throw new IllegalStateException("a down"); }),
+            provider("b", d -> { throw new IllegalStateException("b down"); })));
+
+        // When
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> composite.fetch(date));
+
+        // Then
+        assertEquals(1, e.getSuppressed().length);
+    }
+
+    @Test
+    void testConstructor_UnknownProviderName_Throws() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new CompositeRateProvider(List.of(provider("cbar", d -> rates)), List.of("cbar", "nope")));
+    }
+}
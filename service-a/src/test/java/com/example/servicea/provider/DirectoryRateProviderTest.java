@@ -0,0 +1,72 @@
+package com.example.servicea.provider;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.service.CbarDocumentParser;
+import com.example.servicea.service.RateMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryRateProviderTest {
+
+    @TempDir
+    Path directory;
+
+    private final CbarDocumentParser documentParser = new CbarDocumentParser(new RateMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void testFetch_ReadsArchiveLayout() throws Exception {
+        // Given
+        Path document = directory.resolve("2024").resolve("2024-01-15.xml.gz");
+        Files.createDirectories(document.getParent());
+        try (InputStream in = getClass().getResourceAsStream("/cbar/15.01.2024.xml");
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(document))) {
+            in.transferTo(out);
+        }
+        DirectoryRateProvider provider = new DirectoryRateProvider(documentParser, directory.toString(), false);
+
+        // When
+        List<Currency> currencies = provider.fetch(LocalDate.of(2024, 1, 15));
+
+        // Then
+        assertFalse(currencies.isEmpty());
+        assertTrue(currencies.stream().anyMatch(c -> c.getCode().equals("USD")));
+    }
+
+    @Test
+    void testFetch_ReadsCbarFileName() throws Exception {
+        // Given
+        try (InputStream in = getClass().getResourceAsStream("/cbar/15.01.2024.xml")) {
+            Files.copy(in, directory.resolve("15.01.2024.xml"));
+        }
+        DirectoryRateProvider provider = new DirectoryRateProvider(documentParser, directory.toString(), false);
+
+        // When
+        List<Currency> currencies = provider.fetch(LocalDate.of(2024, 1, 15));
+
+        // Then
+        assertFalse(currencies.isEmpty());
+    }
+
+    @Test
+    void testFetch_MissingDocument_ThrowsUnlessTreatedAsUnpublished() {
+        // Given
+        LocalDate date = LocalDate.of(2024, 1, 14);
+
+        // When / Then
+        assertThrows(UncheckedIOException.class,
+            () -> new DirectoryRateProvider(documentParser, directory.toString(), false).fetch(date));
+        assertTrue(new DirectoryRateProvider(documentParser, directory.toString(), true).fetch(date).isEmpty());
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.BackfillJob;
+import com.example.servicea.model.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillServiceTest {
+
+    @Mock
+    private CbarService cbarService;
+
+    @Mock
+    private CurrencyCacheService cacheService;
+
+    private PublicationCalendar calendar;
+    private BackfillService backfillService;
+
+    private final LocalDate from = LocalDate.of(2024, 1, 1);
+    private final LocalDate to = LocalDate.of(2024, 1, 5);
+
+    @BeforeEach
+    void setUp() {
+        calendar = new PublicationCalendar(cacheService, 60, 1);
+        backfillService = new BackfillService(cbarService, cacheService, calendar, 2, 1000, 2, 3660);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfill_SkipsCachedDatesAndSavesTheRestInBatches() throws Exception {
+        // Given
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of(from.plusDays(1)));
+        when(cbarService.fetchFromCbar(any())).thenReturn(
+            List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+        // When
+        BackfillJob job = backfillService.startBackfill(from, to);
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.getTotalDates());
+        assertEquals(1, job.getSkippedDates());
+        assertEquals(4, job.getFetchedDates());
+        assertEquals(4, job.getSavedDates());
+        assertEquals(100.0, job.getPercentComplete());
+        verify(cbarService, never()).fetchFromCbar(eq(from.plusDays(1)));
+
+        ArgumentCaptor<Map<LocalDate, List<Currency>>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(cacheService, atLeastOnce()).saveAllToCache(batches.capture());
+        Set<LocalDate> saved = new HashSet<>();
+        batches.getAllValues().forEach(batch -> saved.addAll(batch.keySet()));
+        assertEquals(Set.of(from, from.plusDays(2), from.plusDays(3), from.plusDays(4)), saved);
+    }
+
+    @Test
+    void testBackfill_KnownUnpublishedDatesCountAsEmptyWithoutFetching() throws Exception {
+        // Given
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of());
+        calendar.markUnpublished(from.plusDays(1));
+        calendar.markUnpublished(from.plusDays(2));
+        when(cbarService.fetchFromCbar(any())).thenReturn(
+            List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+        // When
+        BackfillJob job = backfillService.startBackfill(from, to);
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(2, job.getEmptyDates());
+        assertEquals(3, job.getFetchedDates());
+        assertEquals(3, job.getSavedDates());
+        assertEquals(100.0, job.getPercentComplete());
+        verify(cbarService, never()).fetchFromCbar(eq(from.plusDays(1)));
+        verify(cbarService, never()).fetchFromCbar(eq(from.plusDays(2)));
+    }
+
+    @Test
+    void testBackfill_FailedDatesCanBeResumed() throws Exception {
+        // Given
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of());
+        when(cbarService.fetchFromCbar(any())).thenThrow(new RuntimeException("CBAR unavailable"));
+
+        // When
+        BackfillJob job = backfillService.startBackfill(from, to);
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(BackfillJob.State.FAILED, job.getState());
+        assertEquals(5, job.getFailedDates().size());
+
+        // When resumed with every date now cached
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of(from, from.plusDays(1),
+            from.plusDays(2), from.plusDays(3), from.plusDays(4)));
+        backfillService.resume(job.getId());
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.getSkippedDates());
+    }
+
+    @Test
+    void testBackfill_EmptyDatesAreMarkedUnpublished() throws Exception {
+        // Given
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of());
+        when(cbarService.fetchFromCbar(any())).thenReturn(List.of());
+        when(cbarService.fetchFromCbar(from)).thenReturn(
+            List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+        // When
+        BackfillJob job = backfillService.startBackfill(from, to);
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(4, job.getEmptyDates());
+        assertFalse(calendar.isKnownUnpublished(from));
+        assertEquals(from, calendar.previousPublished(from.plusDays(1)).orElseThrow());
+        for (LocalDate date = from.plusDays(1); !date.isAfter(to); date = date.plusDays(1)) {
+            assertTrue(calendar.isKnownUnpublished(date), "Unpublished: " + date);
+        }
+    }
+
+    @Test
+    void testResume_ConcurrentCalls_LaunchOneRun() throws Exception {
+        // Given a finished job whose next run blocks until released
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of());
+        when(cbarService.fetchFromCbar(any())).thenReturn(List.of());
+        BackfillJob job = backfillService.startBackfill(from, to);
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+        CountDownLatch release = new CountDownLatch(1);
+        when(cacheService.getCachedDates(from, to)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Set.of(from, from.plusDays(1), from.plusDays(2), from.plusDays(3), from.plusDays(4));
+        });
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        int launched = 0;
+        try (ExecutorService callers = Executors.newFixedThreadPool(4)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    try {
+                        return backfillService.resume(job.getId()).isPresent();
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                launched += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+        }
+        release.countDown();
+        assertTrue(backfillService.awaitCompletion(job, 10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, launched);
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.getSkippedDates());
+        verify(cacheService, times(2)).getCachedDates(from, to);
+    }
+
+    @Test
+    void testStartBackfill_RejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> backfillService.startBackfill(to, from));
+    }
+}
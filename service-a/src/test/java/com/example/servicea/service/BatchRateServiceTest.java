@@ -0,0 +1,94 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.BatchRateResponse;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRateServiceTest {
+
+    @Mock
+    private CbarService cbarService;
+
+    @Mock
+    private CurrencyCacheService cacheService;
+
+    private BatchRateService batchRateService;
+
+    private final LocalDate cachedDate = LocalDate.of(2024, 1, 15);
+    private final LocalDate uncachedDate = LocalDate.of(2024, 1, 16);
+    private final Currency usd = new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"));
+    private final Currency eur = new Currency("EUR", "1 Avro", new BigDecimal("1.8600"));
+
+    @BeforeEach
+    void setUp() {
+        batchRateService = new BatchRateService(cbarService, cacheService, 10, 4);
+    }
+
+    @Test
+    void testGetRates_GroupsByDateAndFetchesOnlyUncachedDates() {
+        // Given
+        when(cacheService.getFromCache(eq(cachedDate), anyCollection())).thenReturn(Map.of("USD", usd, "EUR", eur));
+        when(cacheService.getFromCache(eq(uncachedDate), anyCollection())).thenReturn(Map.of());
+        when(cacheService.isCached(uncachedDate)).thenReturn(false);
+        when(cbarService.loadCurrencies(uncachedDate)).thenReturn(List.of(usd, eur));
+
+        // When
+        BatchRateResponse response = batchRateService.getRates(List.of(
+            new RateRequest(cachedDate, "usd"),
+            new RateRequest(uncachedDate, "EUR"),
+            new RateRequest(cachedDate, "EUR"),
+            new RateRequest(cachedDate, "XXX")));
+
+        // Then
+        assertEquals(3, response.getRates().size());
+        assertEquals("USD", response.getRates().get(0).getCurrency());
+        assertEquals(uncachedDate, response.getRates().get(1).getDate());
+        assertEquals(new BigDecimal("1.8600"), response.getRates().get(1).getRate());
+        assertEquals(List.of(new RateRequest(cachedDate, "XXX")), response.getMissing());
+        assertTrue(response.getFailed().isEmpty());
+        verify(cacheService, times(1)).getFromCache(cachedDate, Set.of("USD", "EUR", "XXX"));
+        verify(cbarService, never()).loadCurrencies(cachedDate);
+    }
+
+    @Test
+    void testGetRates_FetchFailureReportsPairsAsFailed() {
+        // Given
+        when(cacheService.getFromCache(eq(uncachedDate), anyCollection())).thenReturn(Map.of());
+        when(cacheService.isCached(uncachedDate)).thenReturn(false);
+        when(cbarService.loadCurrencies(uncachedDate)).thenThrow(new RuntimeException("CBAR unavailable"));
+
+        // When
+        BatchRateResponse response = batchRateService.getRates(List.of(new RateRequest(uncachedDate, "USD")));
+
+        // Then
+        assertTrue(response.getRates().isEmpty());
+        assertTrue(response.getMissing().isEmpty());
+        assertEquals(List.of(new RateRequest(uncachedDate, "USD")), response.getFailed());
+    }
+
+    @Test
+    void testGetRates_RejectsInvalidBatches() {
+        assertThrows(IllegalArgumentException.class, () -> batchRateService.getRates(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> batchRateService.getRates(
+            List.of(new RateRequest(LocalDate.now().plusDays(2), "USD"))));
+        assertThrows(IllegalArgumentException.class, () -> batchRateService.getRates(
+            List.of(new RateRequest(cachedDate, " "))));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import com.example.servicea.model.RetentionReport;
+import com.example.servicea.repository.CachedCurrencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheCleanupServiceTest {
+
+    @Mock
+    private CachedCurrencyRepository cachedCurrencyRepository;
+
+    @Mock
+    private CurrencyCacheService currencyCacheService;
+
+    @Mock
+    private RateSegmentStore segmentStore;
+
+    @TempDir
+    Path storeDirectory;
+
+    private PublicationCalendar calendar;
+    private CacheCleanupService cleanupService;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new PublicationCalendar(currencyCacheService, 60, 1);
+        cleanupService = new CacheCleanupService(cachedCurrencyRepository, currencyCacheService, segmentStore, calendar,
+            30, 24, 2, 0);
+    }
+
+    @Test
+    void testMonthEnds_KeepsLastDateOfCompleteMonthsWithinWindow() {
+        // Given
+        LocalDate cutoff = LocalDate.of(2024, 6, 15);
+        List<LocalDate> dates = List.of(
+            LocalDate.of(2021, 12, 31),
+            LocalDate.of(2024, 4, 10), LocalDate.of(2024, 4, 29),
+            LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 31),
+            LocalDate.of(2024, 6, 3));
+
+        // When
+        List<LocalDate> kept = CacheCleanupService.monthEnds(dates, cutoff, LocalDate.of(2022, 6, 1));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 4, 29), LocalDate.of(2024, 5, 31)), kept);
+    }
+
+    @Test
+    void testCleanup_DeletesInChunksAndKeepsMonthEnds() {
+        // Given
+        LocalDate cutoff = LocalDate.now().minusDays(30);
+        LocalDate monthEnd = cutoff.withDayOfMonth(1).minusDays(1);
+        LocalDate dayBefore = monthEnd.minusDays(1);
+        when(cachedCurrencyRepository.findCachedDatesBefore(cutoff)).thenReturn(List.of(dayBefore, monthEnd));
+        when(cachedCurrencyRepository.findIdsByCurrencyDateIn(anyCollection(), any(Pageable.class)))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(cachedCurrencyRepository.deleteByIdIn(anyCollection())).thenReturn(2, 1);
+
+        // When
+        RetentionReport report = cleanupService.cleanup(30);
+
+        // Then
+        assertEquals(2, report.datesExamined());
+        assertEquals(1, report.monthEndDatesKept());
+        assertEquals(1, report.datesDeleted());
+        assertEquals(3, report.rowsDeleted());
+        assertEquals(2, report.chunks());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<LocalDate>> dates = ArgumentCaptor.forClass(Collection.class);
+        verify(cachedCurrencyRepository, times(2)).findIdsByCurrencyDateIn(dates.capture(), any(Pageable.class));
+        assertEquals(List.of(dayBefore), List.copyOf(dates.getValue()));
+        verify(cachedCurrencyRepository, times(2)).deleteByIdIn(anyCollection());
+        verify(currencyCacheService).evictFromMemory(cutoff);
+    }
+
+    @Test
+    void testCleanup_ForgetsDeletedDates_StaleFallbackFindsKeptMonthEnd() {
+        // Given
+        LocalDate cutoff = LocalDate.now().minusDays(30);
+        LocalDate monthEnd = cutoff.withDayOfMonth(1).minusDays(1);
+        LocalDate dayBefore = monthEnd.minusDays(1);
+        calendar.markPublished(dayBefore);
+        calendar.markPublished(monthEnd);
+        when(cachedCurrencyRepository.findCachedDatesBefore(cutoff)).thenReturn(List.of(dayBefore, monthEnd));
+
+        // When
+        cleanupService.cleanup(30);
+
+        // Then
+        assertEquals(monthEnd, calendar.previousPublished(cutoff).orElseThrow());
+        assertTrue(calendar.previousPublished(monthEnd).isEmpty());
+        assertTrue(calendar.resolve(dayBefore).isEmpty());
+    }
+
+    @Test
+    void testCleanup_WithStoreEnabled_PrunesStoreToRetainedDates() {
+        // Given: one date in both tiers, the others only in the durable store
+        LocalDate cutoff = LocalDate.now().minusDays(30);
+        LocalDate monthEnd = cutoff.withDayOfMonth(1).minusDays(1);
+        LocalDate dayBefore = monthEnd.minusDays(1);
+        LocalDate beyondDownsampling = cutoff.minusYears(3);
+        LocalDate recent = LocalDate.now().minusDays(1);
+        RateSegmentStore store = new RateSegmentStore(true, storeDirectory.toString(), 1024);
+        for (LocalDate date : List.of(beyondDownsampling, dayBefore, monthEnd, recent)) {
+            store.append(RateSnapshot.of(date, List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000")))));
+        }
+        when(cachedCurrencyRepository.findCachedDatesBefore(cutoff)).thenReturn(List.of(dayBefore));
+        CacheCleanupService service = new CacheCleanupService(cachedCurrencyRepository, currencyCacheService, store,
+            calendar, 30, 24, 2, 0);
+
+        // When
+        RetentionReport report = service.cleanup(30);
+
+        // Then
+        assertEquals(3, report.datesExamined());
+        assertEquals(2, report.storeDatesDeleted());
+        assertEquals(List.of(monthEnd, recent), List.copyOf(store.dates().keySet()));
+        assertTrue(store.read(dayBefore).isEmpty());
+        store.close();
+    }
+
+    @Test
+    void testCleanup_WhenNothingIsOld_DeletesNothing() {
+        // Given
+        when(cachedCurrencyRepository.findCachedDatesBefore(any())).thenReturn(List.of());
+
+        // When
+        RetentionReport report = cleanupService.cleanup(30);
+
+        // Then
+        assertEquals(0, report.rowsDeleted());
+        assertEquals(0, report.chunks());
+        verify(cachedCurrencyRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void testCleanup_WithNegativeDays_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> cleanupService.cleanup(-1));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CbarResponseArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+    private final byte[] document = "<ValCurs Date=\"15.01.2024\"></ValCurs>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testCapture_Completed_ArchivesDocumentAndValidators() throws IOException {
+        // Given
+        CbarResponseArchive archive = new CbarResponseArchive(true, directory.toString());
+
+        // When
+        try (CbarResponseArchive.Capture capture = archive.capture(date, new ByteArrayInputStream(document), "\"abc\"", "Mon, 15 Jan 2024 10:00:00 GMT")) {
+            capture.read(new byte[4]);
+            capture.complete();
+        }
+
+        // Then
+        Optional<CbarResponseArchive.Entry> entry = archive.get(date);
+        assertTrue(entry.isPresent());
+        assertEquals("\"abc\"", entry.get().etag());
+        assertEquals("Mon, 15 Jan 2024 10:00:00 GMT", entry.get().lastModified());
+        try (InputStream in = archive.open(date)) {
+            assertArrayEquals(document, in.readAllBytes());
+        }
+        assertEquals(List.of(date), archive.dates(date.minusDays(1), date.plusDays(1)));
+    }
+
+    @Test
+    void testCapture_NotCompleted_DiscardsDocument() throws IOException {
+        // Given
+        CbarResponseArchive archive = new CbarResponseArchive(true, directory.toString());
+
+        // When
+        try (CbarResponseArchive.Capture capture = archive.capture(date, new ByteArrayInputStream(document), null, null)) {
+            capture.readAllBytes();
+        }
+
+        // Then
+        assertTrue(archive.get(date).isEmpty());
+        assertTrue(archive.dates(date, date).isEmpty());
+    }
+
+    @Test
+    void testCapture_Disabled_PassesBodyThrough() throws IOException {
+        // Given
+        CbarResponseArchive archive = new CbarResponseArchive(false, directory.toString());
+
+        // When
+        byte[] read;
+        try (CbarResponseArchive.Capture capture = archive.capture(date, new ByteArrayInputStream(document), "\"abc\"", null)) {
+            read = capture.readAllBytes();
+            capture.complete();
+        }
+
+        // Then
+        assertArrayEquals(document, read);
+        assertTrue(archive.get(date).isEmpty());
+    }
+}
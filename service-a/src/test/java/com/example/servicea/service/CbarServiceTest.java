@@ -0,0 +1,136 @@
+package com.example.servicea.service;
+
+import com.example.servicea.client.CbarHttpClient;
+import com.example.servicea.client.CircuitBreaker;
+import com.example.servicea.exception.CbarUnavailableException;
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.DatedRates;
+import com.example.servicea.model.RateSnapshot;
+import com.example.servicea.provider.CbarRateProvider;
+import com.example.servicea.provider.RateProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CbarServiceTest {
+
+    @Mock
+    private CbarHttpClient httpClient;
+
+    @Mock
+    private CurrencyCacheService cacheService;
+
+    @Mock
+    private CbarResponseArchive archive;
+
+    @Mock
+    private RateStreamService rateStream;
+
+    private CircuitBreaker breaker;
+    private PublicationCalendar calendar;
+    private CbarService cbarService;
+
+    private final LocalDate yesterday = LocalDate.of(2024, 1, 15);
+    private final LocalDate today = yesterday.plusDays(1);
+    private final RateSnapshot yesterdaySnapshot = RateSnapshot.of(yesterday,
+        List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(1, 60_000, 60_000);
+        calendar = new PublicationCalendar(cacheService, 60, 1);
+        RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+        CbarDocumentParser documentParser = new CbarDocumentParser(metrics);
+        RateProvider cbar = new CbarRateProvider(httpClient, breaker, archive, documentParser, metrics, "https://cbar.az/currencies");
+        cbarService = new CbarService(cbar, httpClient, breaker, documentParser, cacheService, archive, calendar, rateStream);
+    }
+
+    @Test
+    void testGetRates_BreakerOpen_ServesLastGoodSnapshotAsStale() throws Exception {
+        // Given
+        calendar.markPublished(yesterday);
+        breaker.onFailure();
+        when(cacheService.getSnapshot(today)).thenReturn(Optional.empty());
+        when(cacheService.findSnapshot(yesterday)).thenReturn(Optional.of(yesterdaySnapshot));
+
+        // When
+        DatedRates rates = cbarService.getRates(today);
+
+        // Then
+        assertTrue(rates.stale());
+        assertEquals(yesterday, rates.ratesDate());
+        assertEquals(today, rates.requestedDate());
+        assertEquals(yesterdaySnapshot.getCurrencies(), rates.currencies());
+        verify(httpClient, never()).get(any(), any(), any());
+        // One counted cache lookup for the request; re-probes on the way are uncounted
+        verify(cacheService, times(1)).getSnapshot(any());
+    }
+
+    @Test
+    void testGetRates_BreakerOpenAndNothingCached_FailsFast() throws Exception {
+        // Given
+        breaker.onFailure();
+        when(cacheService.getSnapshot(today)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(CbarUnavailableException.class, () -> cbarService.getRates(today));
+        verify(httpClient, never()).get(any(), any(), any());
+    }
+
+    @Test
+    void testGetRates_CachedDate_IsFresh() {
+        // Given
+        when(cacheService.getSnapshot(yesterday)).thenReturn(Optional.of(yesterdaySnapshot));
+
+        // When
+        DatedRates rates = cbarService.getRates(yesterday);
+
+        // Then
+        assertFalse(rates.stale());
+        assertEquals(yesterday, rates.ratesDate());
+    }
+
+    @Test
+    void testGetRates_KnownUnpublishedDate_GoesStraightToCalendar() {
+        // Given
+        calendar.markPublished(yesterday);
+        calendar.markUnpublished(today);
+        when(cacheService.getSnapshot(yesterday)).thenReturn(Optional.of(yesterdaySnapshot));
+
+        // When
+        DatedRates rates = cbarService.getRates(today);
+
+        // Then
+        assertFalse(rates.stale());
+        assertEquals(yesterday, rates.ratesDate());
+        assertEquals(yesterdaySnapshot.getCurrencies(), rates.currencies());
+        verify(cacheService, never()).getSnapshot(today);
+        verify(cacheService, never()).findSnapshot(today);
+    }
+
+    @Test
+    void testGetRates_CachedDate_ProbesCacheOnce() {
+        // Given
+        when(cacheService.getSnapshot(yesterday)).thenReturn(Optional.of(yesterdaySnapshot));
+
+        // When
+        cbarService.getRates(yesterday);
+
+        // Then
+        verify(cacheService, times(1)).getSnapshot(yesterday);
+        verify(cacheService, never()).findSnapshot(any());
+    }
+}
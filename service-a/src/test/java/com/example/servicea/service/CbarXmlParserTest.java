@@ -0,0 +1,57 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CbarXmlParserTest {
+
+    private final CbarXmlParser parser = new CbarXmlParser(
+        (code, nominal, name, value) -> new Currency(code, name + "|" + nominal, new BigDecimal(value)));
+
+    @Test
+    void testParse_RecordedDocument_EmitsEveryValuteInOrder() throws Exception {
+        // Given
+        List<Currency> currencies = new ArrayList<>();
+
+        // When
+        String documentDate;
+        try (InputStream in = getClass().getResourceAsStream("/cbar/15.01.2024.xml")) {
+            documentDate = parser.parse(in, currencies::add);
+        }
+
+        // Then
+        assertEquals("15.01.2024", documentDate);
+        assertEquals(49, currencies.size());
+        assertEquals("XAU", currencies.get(0).getCode());
+        assertEquals("Qızıl|1 t.u.", currencies.get(0).getName());
+        Currency usd = currencies.get(4);
+        assertEquals("USD", usd.getCode());
+        assertEquals("1 ABŞ dolları|1", usd.getName());
+        assertEquals(new BigDecimal("1.7"), usd.getRate());
+    }
+
+    @Test
+    void testParse_CodeAsChildElement_IsRead() throws Exception {
+        // Given
+        String xml = "<ValCurs Date=\"01.02.2024\"><ValType Type=\"x\"><Valute>"
+            + "<Code>EUR</Code><Nominal>1</Nominal><Name>1 Avro</Name><Value>1.8500</Value>"
+            + "</Valute></ValType></ValCurs>";
+        List<Currency> currencies = new ArrayList<>();
+
+        // When
+        parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), currencies::add);
+
+        // Then
+        assertEquals(1, currencies.size());
+        assertEquals("EUR", currencies.get(0).getCode());
+    }
+}
@@ -2,18 +2,23 @@ package com.example.servicea.service;
 
 import com.example.servicea.model.CachedCurrency;
 import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
 import com.example.servicea.repository.CachedCurrencyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,14 +31,19 @@ class CurrencyCacheServiceTest {
     @Mock
     private CachedCurrencyRepository cachedCurrencyRepository;
 
-    @InjectMocks
+    private RateSnapshotStore snapshotStore;
     private CurrencyCacheService currencyCacheService;
 
+    private RateMetrics metrics;
     private LocalDate testDate;
     private List<Currency> testCurrencies;
 
     @BeforeEach
     void setUp() {
+        snapshotStore = new RateSnapshotStore(16, new CurrencyRegistry());
+        metrics = new RateMetrics(new SimpleMeterRegistry());
+        currencyCacheService = new CurrencyCacheService(cachedCurrencyRepository, snapshotStore,
+            new RateSegmentStore(false, "unused", 0), metrics);
         testDate = LocalDate.of(2024, 1, 15);
         testCurrencies = Arrays.asList(
             new Currency("USD", "US Dollar", new BigDecimal("1.7000")),
@@ -131,4 +141,126 @@ class CurrencyCacheServiceTest {
         // Then
         verify(cachedCurrencyRepository).saveAll(any());
     }
+
+    @Test
+    void testGetFromCache_AfterSave_ServedFromMemoryWithoutRepository() {
+        // Given
+        when(cachedCurrencyRepository.saveAll(any())).thenReturn(Arrays.asList());
+        currencyCacheService.saveToCache(testDate, testCurrencies);
+
+        // When
+        Optional<Currency> result = currencyCacheService.getFromCache(testDate, "usd");
+        List<Currency> all = currencyCacheService.getFromCache(testDate);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("USD", result.get().getCode());
+        assertEquals(3, all.size());
+        assertTrue(currencyCacheService.isCached(testDate));
+        verify(cachedCurrencyRepository, never()).findByCurrencyDateAndCurrencyCode(any(), any());
+        verify(cachedCurrencyRepository, never()).findByCurrencyDate(any());
+        verify(cachedCurrencyRepository, never()).existsByCurrencyDate(any());
+    }
+
+    @Test
+    void testGetFromCache_WhenLoadedFromDatabase_PublishesSnapshot() {
+        // Given
+        List<CachedCurrency> cachedCurrencies = Arrays.asList(
+            new CachedCurrency(testDate, "USD", "US Dollar", new BigDecimal("1.7000"))
+        );
+        when(cachedCurrencyRepository.findByCurrencyDate(testDate)).thenReturn(cachedCurrencies);
+
+        // When
+        currencyCacheService.getFromCache(testDate);
+        Optional<Currency> missing = currencyCacheService.getFromCache(testDate, "EUR");
+
+        // Then
+        assertTrue(snapshotStore.get(testDate).isPresent());
+        assertFalse(missing.isPresent());
+        verify(cachedCurrencyRepository, times(1)).findByCurrencyDate(testDate);
+        verify(cachedCurrencyRepository, never()).findByCurrencyDateAndCurrencyCode(any(), any());
+    }
+
+    @Test
+    void testGetSnapshot_CountsHitsAndMissesPerTier() {
+        // Given
+        when(cachedCurrencyRepository.findByCurrencyDate(testDate)).thenReturn(List.of(
+            new CachedCurrency(testDate, "USD", "US Dollar", new BigDecimal("1.7000"))));
+        when(cachedCurrencyRepository.findByCurrencyDate(testDate.plusDays(1))).thenReturn(List.of());
+
+        // When
+        currencyCacheService.getSnapshot(testDate);
+        currencyCacheService.getSnapshot(testDate);
+        currencyCacheService.getSnapshot(testDate.plusDays(1));
+
+        // Then
+        Map<String, Object> stats = metrics.getCacheStats();
+        assertEquals(1L, stats.get("memoryHits"));
+        assertEquals(2L, stats.get("memoryMisses"));
+        assertEquals(1L, stats.get("databaseHits"));
+        assertEquals(1L, stats.get("databaseMisses"));
+        assertEquals(0L, stats.get("storeMisses"));
+        assertEquals(2.0 / 3.0, (double) stats.get("hitRatio"), 1e-9);
+    }
+
+    @Test
+    void testFindSnapshot_LoadsIntoMemoryWithoutCounting() {
+        // Given
+        when(cachedCurrencyRepository.findByCurrencyDate(testDate)).thenReturn(List.of(
+            new CachedCurrency(testDate, "USD", "US Dollar", new BigDecimal("1.7000"))));
+
+        // When
+        Optional<RateSnapshot> found = currencyCacheService.findSnapshot(testDate);
+
+        // Then
+        assertTrue(found.isPresent());
+        assertTrue(currencyCacheService.peekSnapshot(testDate).isPresent());
+        Map<String, Object> stats = metrics.getCacheStats();
+        assertEquals(0L, stats.get("memoryMisses"));
+        assertEquals(0L, stats.get("databaseHits"));
+    }
+
+    @Test
+    void testCountCached_ReportsTierThatAnswered(@TempDir Path storeDirectory) {
+        // Given
+        RateSegmentStore segmentStore = new RateSegmentStore(true, storeDirectory.toString(), 1 << 20);
+        segmentStore.append(RateSnapshot.of(testDate.plusDays(1), testCurrencies));
+        CurrencyCacheService service = new CurrencyCacheService(cachedCurrencyRepository, snapshotStore, segmentStore, metrics);
+        snapshotStore.publish(RateSnapshot.of(testDate, testCurrencies));
+        when(cachedCurrencyRepository.countByCurrencyDate(testDate.plusDays(2))).thenReturn(45L);
+        when(cachedCurrencyRepository.countByCurrencyDate(testDate.plusDays(3))).thenReturn(0L);
+
+        // When / Then
+        assertEquals(new CurrencyCacheService.CachedCount(RateMetrics.Tier.MEMORY, 3),
+            service.countCached(testDate).orElseThrow());
+        assertEquals(new CurrencyCacheService.CachedCount(RateMetrics.Tier.STORE, 3),
+            service.countCached(testDate.plusDays(1)).orElseThrow());
+        assertEquals(new CurrencyCacheService.CachedCount(RateMetrics.Tier.DATABASE, 45),
+            service.countCached(testDate.plusDays(2)).orElseThrow());
+        assertTrue(service.countCached(testDate.plusDays(3)).isEmpty());
+        segmentStore.close();
+    }
+
+    @Test
+    void testGetSeries_StoreOnlyDates_AreNotPublishedToMemory(@TempDir Path storeDirectory) {
+        // Given: a small memory tier holding the hot date, and a longer history in the store
+        RateSnapshotStore memory = new RateSnapshotStore(2, new CurrencyRegistry());
+        RateSegmentStore segmentStore = new RateSegmentStore(true, storeDirectory.toString(), 1 << 20);
+        for (int i = 0; i <= 5; i++) {
+            segmentStore.append(RateSnapshot.of(testDate.minusDays(i), testCurrencies));
+        }
+        memory.publish(RateSnapshot.of(testDate, testCurrencies));
+        CurrencyCacheService service = new CurrencyCacheService(cachedCurrencyRepository, memory, segmentStore, metrics);
+        when(cachedCurrencyRepository.findSeries("USD", testDate.minusDays(5), testDate)).thenReturn(List.of());
+
+        // When
+        NavigableMap<LocalDate, Currency> series = service.getSeries("USD", testDate.minusDays(5), testDate);
+
+        // Then
+        assertEquals(6, series.size());
+        assertEquals(testDate.minusDays(5), series.firstKey());
+        assertTrue(memory.get(testDate).isPresent());
+        assertTrue(memory.get(testDate.minusDays(1)).isEmpty());
+        segmentStore.close();
+    }
 }
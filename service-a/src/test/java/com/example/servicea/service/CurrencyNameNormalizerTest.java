@@ -0,0 +1,98 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyNameNormalizerTest {
+
+    private final CurrencyNameNormalizer normalizer = new CurrencyNameNormalizer();
+
+    /**
+     * Damaged names and their expected repairs, as previously mapped by CbarService.mapCurrencyName
+     */
+    private static final String[][] KNOWN_NAMES = {
+        {"QÄ±zÄ±l", "Qızıl"},
+        {"GÃ¼mÃ¼Å", "Gümüş"},
+        {"Palladium", "Palladium"},
+        {"Platin", "Platin"},
+        {"1 Serbiya dinarA+ (RSD)", "1 Serbiya dinarı (RSD)"},
+        {"1 Sinqapur dollarÄ± (SGD)", "1 Sinqapur dolları (SGD)"},
+        {"1 SÉQudiyyÉO ÆrÉ bistanÄ± rialÄ± (SAR)", "1 Səudiyyə Ərəbistanı rialı (SAR)"},
+        {"1 TÃ¼rk lirÉOsi (TRY)", "1 Türk lirəsi (TRY)"},
+        {"1 TÃ¼rkmÉOnistan manatÄ± (TMT)", "1 Türkmənistan manatı (TMT)"},
+        {"1 Ukrayna qrivnasÄ± (UAH)", "1 Ukrayna qrivnası (UAH)"},
+        {"1 Yeni Zelandiya dollarÄ± (NZD)", "1 Yeni Zelandiya dolları (NZD)"},
+        {"1 BÆÆ dirhÉmi (AED)", "1 BƏƏ dirhəmi (AED)"},
+        {"100 QazaxÄ±stan tengÉsi (KZT)", "100 Qazaxıstan tengəsi (KZT)"},
+        {"1 QÉtÉr rialÄ± (QAR)", "1 Qətər rialı (QAR)"},
+        {"1 QÄ±rÄÄ±z somu (KGS)", "1 Qırğız somu (KGS)"},
+        {"100 MacarÄ±stan forinti (HUF)", "100 Macarıstan forinti (HUF)"},
+        {"1 Moldova leyi (MDL)", "1 Moldova leyi (MDL)"},
+        {"1 NorveÃ§ kronu (NOK)", "1 Norveç kronu (NOK)"},
+        {"100 ÃzbÉk somu (UZS)", "100 Özbək somu (UZS)"},
+        {"100 Pakistan rupisi (PKR)", "100 Pakistan rupisi (PKR)"},
+        {"1 PolÅa zlotÄ±sÄ± (PLN)", "1 Polşa zlotısı (PLN)"},
+        {"1 RumÄ±niya leyi (RON)", "1 Rumıniya leyi (RON)"},
+        {"100 Rusiya rublu (RUB)", "100 Rusiya rublu (RUB)"},
+        {"1 Serbiya dinarÄ± (RSD)", "1 Serbiya dinarı (RSD)"},
+        {"1 SÉudiyyÉ ÆrÉbistanÄ± rialÄ± (SAR)", "1 Səudiyyə Ərəbistanı rialı (SAR)"},
+        {"1 SDR (BVF-nin xÃ¼susi borcalma hÃ¼quqlarÄ±) (SDR)", "1 SDR (BVF-nin xüsusi borcalma hüquqları) (SDR)"},
+        {"1 Ä°ngilis funt sterlinqi (GBP)", "1 İngilis funt sterlinqi (GBP)"},
+        {"1 Ä°sveÃ§ kronu (SEK)", "1 İsveç kronu (SEK)"},
+        {"1 Ä°sveÃ§rÉ frankÄ± (CHF)", "1 İsveçrə frankı (CHF)"},
+        {"1 Ä°srail Åekeli (ILS)", "1 İsrail Şekeli (ILS)"},
+        {"1 KÃ¼veyt dinarÄ± (KWD)", "1 Küveyt dinarı (KWD)"},
+        {"100 Yapon yeni (JPY)", "100 Yapon yeni (JPY)"}
+    };
+
+    @Test
+    void testNormalize_KnownDamagedNames_MatchPreviousMapping() {
+        for (String[] known : KNOWN_NAMES) {
+            assertEquals(known[1], normalizer.normalize(known[0]), "Repair of: " + known[0]);
+        }
+    }
+
+    @Test
+    void testNormalize_CorrectName_ReturnsSameInstance() {
+        // Given
+        String name = "1 Səudiyyə Ərəbistanı rialı (SAR)";
+
+        // When / Then
+        assertSame(name, normalizer.normalize(name));
+    }
+
+    @Test
+    void testNormalize_Windows1252Continuation_IsDecoded() {
+        // "ğ" is C4 9F, which Windows-1252 decodes as "Ÿ"
+        assertEquals("Qırğız", normalizer.normalize("QÄ±rÄŸÄ±z"));
+    }
+
+    @Test
+    void testResolveCode_PrefersProvidedCode() {
+        assertEquals("USD", normalizer.resolveCode(" usd ", "1 ABŞ dolları"));
+    }
+
+    @Test
+    void testResolveCode_FromParenthesesOrKeywords() {
+        assertEquals("SDR", normalizer.resolveCode(null, "1 SDR (BVF-nin xüsusi borcalma hüquqları) (SDR)"));
+        assertEquals("BYN", normalizer.resolveCode("", "1 Belarus rublu"));
+        assertEquals("RUB", normalizer.resolveCode(null, "100 Rusiya rublu"));
+        assertEquals("CHF", normalizer.resolveCode(null, "1 İsveçrə frankı"));
+        assertEquals("SEK", normalizer.resolveCode(null, "1 İsveç kronu"));
+        assertEquals("SAR", normalizer.resolveCode(null, "1 Səudiyyə Ərəbistanı rialı"));
+        assertEquals("XAU", normalizer.resolveCode(null, "Qızıl"));
+        assertEquals("UNKNOWN", normalizer.resolveCode(null, "Naməlum"));
+    }
+
+    @Test
+    void testResolveCode_DollarNames_AreNotTakenForLari() {
+        assertEquals("USD", normalizer.resolveCode(null, "1 ABŞ dolları"));
+        assertEquals("CAD", normalizer.resolveCode(null, "1 Kanada dolları"));
+        assertEquals("AUD", normalizer.resolveCode(null, "1 Avstraliya dolları"));
+        assertEquals("NZD", normalizer.resolveCode(null, "1 Yeni Zelandiya dolları"));
+        assertEquals("SGD", normalizer.resolveCode(null, "1 Sinqapur dolları"));
+        assertEquals("HKD", normalizer.resolveCode(null, "1 Honkonq dolları"));
+        assertEquals("GEL", normalizer.resolveCode(null, "1 Gürcüstan larisi"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    @Test
+    void testRegister_AssignsDenseIdsOnce() {
+        // Given
+        CurrencyRegistry registry = new CurrencyRegistry();
+
+        // When
+        int usd = registry.register("USD");
+        int eur = registry.register("EUR");
+
+        // Then
+        assertEquals(0, usd);
+        assertEquals(1, eur);
+        assertEquals(usd, registry.register("usd"));
+        assertEquals(2, registry.size());
+        assertEquals("USD", registry.codeOf(usd));
+    }
+
+    @Test
+    void testIdOf_IsCaseInsensitive() {
+        // Given
+        CurrencyRegistry registry = new CurrencyRegistry();
+        int usd = registry.register("USD");
+        int unknown = registry.register("UNKNOWN");
+
+        // Then
+        assertEquals(usd, registry.idOf("usd"));
+        assertEquals(usd, registry.idOf("uSd"));
+        assertEquals(unknown, registry.idOf("unknown"));
+        assertEquals(CurrencyRegistry.UNKNOWN, registry.idOf("GBP"));
+        assertEquals(CurrencyRegistry.UNKNOWN, registry.idOf("U$D"));
+        assertEquals(CurrencyRegistry.UNKNOWN, registry.idOf(null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointRatesTest {
+
+    @Test
+    void testParseMicros_CommonNominals() {
+        assertEquals(1_700_000L, FixedPointRates.parseMicros("1.7000", "1"));
+        assertEquals(18_900L, FixedPointRates.parseMicros("1.8900", "100"));
+        assertEquals(4_521_234_500L, FixedPointRates.parseMicros("4521.2345", "1 t.u."));
+        assertEquals(1_700_000L, FixedPointRates.parseMicros(" 1,7 ", " 1 "));
+    }
+
+    @Test
+    void testParseMicros_RoundsHalfUpToSixDecimals() {
+        assertEquals(1L, FixedPointRates.parseMicros("0.0000005", "1"));
+        assertEquals(0L, FixedPointRates.parseMicros("0.0000004999", "1"));
+        assertEquals(333_333L, FixedPointRates.parseMicros("1", "3"));
+        assertEquals(666_667L, FixedPointRates.parseMicros("2", "3"));
+    }
+
+    @Test
+    void testParseMicros_NominalWithoutDigits_CountsAsOne() {
+        assertEquals(2_500_000L, FixedPointRates.parseMicros("2.5", "t.u."));
+    }
+
+    @Test
+    void testParseMicros_InvalidInput_Throws() {
+        assertThrows(NumberFormatException.class, () -> FixedPointRates.parseMicros("1.2.3", "1"));
+        assertThrows(NumberFormatException.class, () -> FixedPointRates.parseMicros("abc", "1"));
+        assertThrows(NumberFormatException.class, () -> FixedPointRates.parseMicros("", "1"));
+        assertThrows(ArithmeticException.class, () -> FixedPointRates.parseMicros("1.7", "0"));
+    }
+
+    @Test
+    void testParseMicros_MatchesBigDecimalOnRecordedDocument() throws Exception {
+        // Given
+        List<String[]> valutes = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream("/cbar/15.01.2024.xml")) {
+            new CbarXmlParser((code, nominal, name, value) -> {
+                valutes.add(new String[] {value, nominal});
+                return null;
+            }).parse(in, currency -> { });
+        }
+
+        // When / Then
+        assertFalse(valutes.isEmpty());
+        for (String[] valute : valutes) {
+            String nominal = valute[1].replaceAll("[^0-9.,].*$", "").replaceAll("[^0-9.,]", "");
+            BigDecimal expected = new BigDecimal(valute[0].trim().replace(",", "."))
+                .divide(new BigDecimal(nominal.isEmpty() ? "1" : nominal), 6, RoundingMode.HALF_UP);
+            assertEquals(expected, FixedPointRates.toBigDecimal(FixedPointRates.parseMicros(valute[0], valute[1])),
+                "value=" + valute[0] + ", nominal=" + valute[1]);
+        }
+    }
+}
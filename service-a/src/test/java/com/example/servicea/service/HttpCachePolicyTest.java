@@ -0,0 +1,51 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCachePolicyTest {
+
+    private final HttpCachePolicy policy = new HttpCachePolicy(31536000, 60);
+
+    @Test
+    void testCacheControl_PastPublishedDate_ImmutableLongMaxAge() {
+        // Given
+        LocalDate date = LocalDate.now().minusDays(3);
+
+        // When
+        String header = policy.cacheControl(date, date, false).getHeaderValue();
+
+        // Then
+        assertEquals("max-age=31536000, public, immutable", header);
+    }
+
+    @Test
+    void testCacheControl_TodayOrStandInOrStale_ShortOrNoCache() {
+        // Given
+        LocalDate today = LocalDate.now();
+        LocalDate holiday = today.minusDays(3);
+
+        // When
+        String forToday = policy.cacheControl(today, today, false).getHeaderValue();
+        String forStandIn = policy.cacheControl(holiday, holiday.minusDays(1), false).getHeaderValue();
+        String forStale = policy.cacheControl(holiday, holiday.minusDays(1), true).getHeaderValue();
+
+        // Then
+        assertEquals("max-age=60, must-revalidate, public", forToday);
+        assertEquals("max-age=60, must-revalidate, public", forStandIn);
+        assertEquals("no-cache", forStale);
+    }
+
+    @Test
+    void testMatches_ListsWeakPrefixAndWildcard() {
+        assertTrue(HttpCachePolicy.matches("\"abc\"", "\"abc\""));
+        assertTrue(HttpCachePolicy.matches("\"x\", W/\"abc\"", "\"abc\""));
+        assertTrue(HttpCachePolicy.matches("*", "\"abc\""));
+        assertFalse(HttpCachePolicy.matches("\"abc-gz\"", "\"abc\""));
+        assertFalse(HttpCachePolicy.matches(null, "\"abc\""));
+        assertFalse(HttpCachePolicy.matches("\"abc\"", null));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublicationCalendarTest {
+
+    @Mock
+    private CurrencyCacheService cacheService;
+
+    private final AtomicLong now = new AtomicLong();
+    private final LocalDate friday = LocalDate.of(2024, 1, 12);
+    private final LocalDate saturday = friday.plusDays(1);
+    private final LocalDate sunday = friday.plusDays(2);
+
+    private PublicationCalendar calendar() {
+        return new PublicationCalendar(cacheService, 60, 1, now::get);
+    }
+
+    @Test
+    void testResolve_UnpublishedDate_FloorsToPreviousPublication() {
+        // Given
+        PublicationCalendar calendar = calendar();
+        calendar.markPublished(friday);
+        calendar.markUnpublished(saturday);
+        calendar.markUnpublished(sunday);
+
+        // When / Then
+        assertEquals(Optional.of(friday), calendar.resolve(friday));
+        assertEquals(Optional.of(friday), calendar.resolve(sunday));
+        assertEquals(Optional.empty(), calendar.resolve(sunday.plusDays(1)));
+    }
+
+    @Test
+    void testMarkUnpublished_ExpiresAfterTtl() {
+        // Given
+        PublicationCalendar calendar = calendar();
+        calendar.markPublished(friday);
+        calendar.markUnpublished(saturday);
+
+        // When
+        now.addAndGet(TimeUnit.MINUTES.toNanos(61));
+
+        // Then
+        assertFalse(calendar.isKnownUnpublished(saturday));
+        assertEquals(Optional.empty(), calendar.resolve(saturday));
+        assertEquals(0, calendar.getUnpublishedCount());
+    }
+
+    @Test
+    void testMarkUnpublished_PublishedDateIsNeverNegative() {
+        // Given
+        PublicationCalendar calendar = calendar();
+        calendar.markUnpublished(friday);
+
+        // When
+        calendar.markPublished(friday);
+        calendar.markUnpublished(friday);
+
+        // Then
+        assertFalse(calendar.isKnownUnpublished(friday));
+        assertEquals(Optional.of(friday), calendar.resolve(friday));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateIndexTest {
+
+    private final CurrencyRegistry registry = new CurrencyRegistry();
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+
+    @Test
+    void testOf_LooksUpByRegistryIdAndFirstEntryWins() {
+        // Given
+        RateSnapshot snapshot = RateSnapshot.of(date, List.of(
+            new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000")),
+            new Currency("EUR", "1 Avro", new BigDecimal("1.8600")),
+            new Currency("USD", "1 ABŞ dolları", new BigDecimal("9.9999"))));
+
+        // When
+        RateIndex index = RateIndex.of(snapshot, registry);
+
+        // Then
+        assertEquals(new BigDecimal("1.7000"), index.get(registry.idOf("usd")).getRate());
+        assertEquals(new BigDecimal("1.8600"), index.get(registry.idOf("EUR")).getRate());
+        assertNull(index.get(registry.idOf("GBP")));
+        assertNull(index.get(-1));
+    }
+
+    @Test
+    void testGet_CodeRegisteredAfterBuild_IsAbsent() {
+        // Given
+        RateIndex index = RateIndex.of(RateSnapshot.of(date, List.of(
+            new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000")))), registry);
+
+        // When
+        int later = registry.register("XAU");
+
+        // Then
+        assertNull(index.get(later));
+    }
+}
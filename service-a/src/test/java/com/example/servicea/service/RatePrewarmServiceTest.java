@@ -0,0 +1,72 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatePrewarmServiceTest {
+
+    @Mock
+    private CbarService cbarService;
+
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+
+    private RatePrewarmService service(boolean includeTomorrow, int maxAttempts) {
+        return new RatePrewarmService(cbarService, true, includeTomorrow, maxAttempts, 1, 4, "Asia/Baku");
+    }
+
+    @Test
+    void testWarm_RetriesUntilPublished() {
+        // Given
+        when(cbarService.getPublishedCurrencies(date))
+            .thenThrow(new RuntimeException("CBAR unavailable"))
+            .thenReturn(List.of())
+            .thenReturn(List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+        // When
+        boolean warmed = service(false, 5).warm(date);
+
+        // Then
+        assertTrue(warmed);
+        verify(cbarService, times(3)).getPublishedCurrencies(date);
+    }
+
+    @Test
+    void testWarm_GivesUpAfterMaxAttempts() {
+        // Given
+        when(cbarService.getPublishedCurrencies(date)).thenReturn(List.of());
+
+        // When
+        boolean warmed = service(false, 3).warm(date);
+
+        // Then
+        assertFalse(warmed);
+        verify(cbarService, times(3)).getPublishedCurrencies(date);
+    }
+
+    @Test
+    void testPrewarm_IncludesTomorrow() {
+        // Given
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Baku"));
+        when(cbarService.getPublishedCurrencies(any()))
+            .thenReturn(List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+
+        // When
+        Map<LocalDate, Boolean> result = service(true, 1).prewarm();
+
+        // Then
+        assertEquals(Map.of(today, true, today.plusDays(1), true), result);
+    }
+}
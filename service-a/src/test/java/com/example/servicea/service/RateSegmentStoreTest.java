@@ -0,0 +1,184 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+
+    private RateSegmentStore open() {
+        return new RateSegmentStore(true, directory.toString(), 1024);
+    }
+
+    private static RateSnapshot snapshot(LocalDate date, String usdRate) {
+        return RateSnapshot.of(date, List.of(
+            new Currency("USD", "1 ABŞ dolları", new BigDecimal(usdRate)),
+            new Currency("XAU", "Qızıl", new BigDecimal("3452.9595"))));
+    }
+
+    @Test
+    void testAppend_SurvivesReopen() {
+        // Given
+        RateSegmentStore store = open();
+        store.append(snapshot(date, "1.7000"));
+        store.append(snapshot(date.plusDays(1), "1.7001"));
+        store.close();
+
+        // When
+        RateSegmentStore reopened = open();
+        Optional<RateSnapshot> result = reopened.read(date);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().size());
+        assertEquals(new BigDecimal("1.7000"), result.get().find("USD").orElseThrow().getRate());
+        assertEquals("Qızıl", result.get().find("XAU").orElseThrow().getName());
+        assertEquals(date.plusDays(1), reopened.readLatest(1).get(0).getDate());
+        reopened.close();
+    }
+
+    @Test
+    void testAppend_SameDateAgain_LatestRecordWins() {
+        // Given
+        RateSegmentStore store = open();
+        store.append(snapshot(date, "1.7000"));
+        store.append(snapshot(date, "1.7005"));
+
+        // When
+        Optional<RateSnapshot> result = store.read(date);
+
+        // Then
+        assertEquals(new BigDecimal("1.7005"), result.orElseThrow().find("USD").orElseThrow().getRate());
+        store.close();
+    }
+
+    @Test
+    void testOpen_RebuildsMissingIndexFromSegments() throws IOException {
+        // Given: enough records to roll over to a second segment
+        RateSegmentStore store = open();
+        for (int i = 0; i < 20; i++) {
+            store.append(snapshot(date.plusDays(i), "1.7000"));
+        }
+        store.close();
+        Files.delete(directory.resolve("index.dat"));
+
+        // When
+        RateSegmentStore reopened = open();
+
+        // Then
+        assertTrue(Files.exists(directory.resolve("segment-00002.log")));
+        assertEquals(20, reopened.dates().size());
+        assertTrue(reopened.read(date.plusDays(19)).isPresent());
+        reopened.close();
+    }
+
+    @Test
+    void testOpen_TruncatesTornRecordAtTail() throws IOException {
+        // Given
+        RateSegmentStore store = open();
+        store.append(snapshot(date, "1.7000"));
+        store.close();
+        Path segment = directory.resolve("segment-00001.log");
+        long validSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x52, 0x41, 0x54, 0x45, 0, 0, 0, 64, 1, 2}));
+        }
+
+        // When
+        RateSegmentStore reopened = open();
+
+        // Then
+        assertEquals(validSize, Files.size(segment));
+        assertTrue(reopened.read(date).isPresent());
+        reopened.close();
+    }
+
+    @Test
+    void testRemove_CompactsSoRebuildDoesNotRestoreDates() throws IOException {
+        // Given
+        RateSegmentStore store = open();
+        for (int i = 0; i < 20; i++) {
+            store.append(snapshot(date.plusDays(i), "1.7000"));
+        }
+
+        // When
+        int removed = store.remove(List.of(date, date.plusDays(1), date.minusDays(1)));
+        store.close();
+        Files.delete(directory.resolve("index.dat"));
+        RateSegmentStore reopened = open();
+
+        // Then
+        assertEquals(2, removed);
+        assertFalse(Files.exists(directory.resolve("segment-00001.log")));
+        assertEquals(18, reopened.dates().size());
+        assertFalse(reopened.contains(date));
+        assertTrue(reopened.read(date.plusDays(2)).isPresent());
+        reopened.close();
+    }
+
+    @Test
+    void testRemove_ConcurrentReadsSeeEveryKeptDate() throws Exception {
+        // Given: kept dates spread over many segments, and dates to remove in several compactions
+        RateSegmentStore store = open();
+        for (int i = 0; i < 40; i++) {
+            store.append(snapshot(date.plusDays(i), "1.7000"));
+        }
+        AtomicBoolean compacting = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+
+        // When
+        List<Future<?>> readers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int r = 0; r < 4; r++) {
+                readers.add(executor.submit(() -> {
+                    while (compacting.get()) {
+                        for (int i = 20; i < 40; i++) {
+                            assertTrue(store.read(date.plusDays(i)).isPresent(), "Kept date missing during compaction");
+                            assertEquals(2, store.count(date.plusDays(i)));
+                            reads.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 20; i++) {
+                store.remove(List.of(date.plusDays(i)));
+            }
+            compacting.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        // Then
+        assertTrue(reads.get() > 0);
+        assertEquals(20, store.dates().size());
+        store.close();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateSeriesServiceTest {
+
+    @Mock
+    private CbarService cbarService;
+
+    @Mock
+    private CurrencyCacheService cacheService;
+
+    private RateSeriesService seriesService;
+
+    private final LocalDate from = LocalDate.of(2024, 1, 15);
+    private final LocalDate to = from.plusDays(5);
+
+    @BeforeEach
+    void setUp() {
+        seriesService = new RateSeriesService(cbarService, cacheService, 2, 3660);
+    }
+
+    @Test
+    void testStreamSeries_MergesCachedAndFetchedPointsInDateOrder() throws IOException {
+        // Given
+        TreeMap<LocalDate, Currency> cached = new TreeMap<>();
+        cached.put(from, usd("1.7000"));
+        cached.put(from.plusDays(3), usd("1.7003"));
+        when(cacheService.getSeries("USD", from, to)).thenReturn(cached);
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of(from, from.plusDays(3)));
+        when(cbarService.getCurrencies(anyString())).thenAnswer(invocation -> {
+            LocalDate date = LocalDate.parse(invocation.getArgument(0));
+            // Later dates answer first, so completion order differs from date order
+            Thread.sleep(5L * (to.getDayOfMonth() - date.getDayOfMonth()));
+            return List.of(usd("1.70" + (date.getDayOfMonth() - from.getDayOfMonth()) + "0"));
+        });
+        List<LocalDate> dates = new ArrayList<>();
+
+        // When
+        int written = seriesService.streamSeries(" usd ", from, to, point -> dates.add(point.getDate()));
+
+        // Then
+        assertEquals(6, written);
+        assertEquals(from.datesUntil(to.plusDays(1)).toList(), dates);
+    }
+
+    @Test
+    void testStreamSeries_FetchesOnlyDatesWithNothingCached() throws IOException {
+        // Given
+        when(cacheService.getSeries("USD", from, to)).thenReturn(new TreeMap<>());
+        // Cached dates without the requested currency have no point and must not be fetched either
+        when(cacheService.getCachedDates(from, to)).thenReturn(Set.of(from, from.plusDays(1), from.plusDays(2)));
+        when(cbarService.getCurrencies(anyString())).thenReturn(List.of(usd("1.7000")));
+        List<RateResponse> points = new ArrayList<>();
+
+        // When
+        seriesService.streamSeries("USD", from, to, points::add);
+
+        // Then
+        assertEquals(3, points.size());
+        verify(cbarService).getCurrencies(from.plusDays(3).toString());
+        verify(cbarService).getCurrencies(from.plusDays(4).toString());
+        verify(cbarService).getCurrencies(to.toString());
+        verifyNoMoreInteractions(cbarService);
+    }
+
+    @Test
+    void testStreamSeries_SinkFailure_CancelsOutstandingFetches() throws Exception {
+        // Given
+        LocalDate end = from.plusDays(29);
+        when(cacheService.getSeries("USD", from, end)).thenReturn(new TreeMap<>());
+        when(cacheService.getCachedDates(from, end)).thenReturn(Set.of());
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(cbarService.getCurrencies(anyString())).thenAnswer(invocation -> {
+            if (from.toString().equals(invocation.getArgument(0))) {
+                secondStarted.await(5, TimeUnit.SECONDS);
+            } else {
+                secondStarted.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+            return List.of(usd("1.7000"));
+        });
+
+        // When
+        IOException failure = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(IOException.class,
+            () -> seriesService.streamSeries("USD", from, end, point -> {
+                throw new IOException("Broken pipe");
+            })));
+
+        // Then
+        assertEquals("Broken pipe", failure.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        // Only the first window of two dates was ever submitted, not all thirty
+        verify(cbarService, atMost(2)).getCurrencies(anyString());
+    }
+
+    private static Currency usd(String rate) {
+        return new Currency("USD", "1 ABŞ dolları", new BigDecimal(rate));
+    }
+}
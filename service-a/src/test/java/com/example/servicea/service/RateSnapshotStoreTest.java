@@ -0,0 +1,73 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotStoreTest {
+
+    private static RateSnapshot snapshot(LocalDate date) {
+        return RateSnapshot.of(date, List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7000"))));
+    }
+
+    @Test
+    void testPublish_BeyondLimit_EvictsEldestPublished() {
+        // Given
+        RateSnapshotStore store = new RateSnapshotStore(2, new CurrencyRegistry());
+        LocalDate first = LocalDate.of(2024, 1, 1);
+
+        // When
+        store.publish(snapshot(first));
+        store.publish(snapshot(first.plusDays(1)));
+        store.publish(snapshot(first.plusDays(2)));
+
+        // Then
+        assertEquals(2, store.size());
+        assertFalse(store.get(first).isPresent());
+        assertTrue(store.get(first.plusDays(2)).isPresent());
+        assertNull(store.find(first, "USD"));
+        assertEquals(new BigDecimal("1.7000"), store.find(first.plusDays(2), "usd").getRate());
+    }
+
+    @Test
+    void testEvictBefore_RemovesOlderDates() {
+        // Given
+        RateSnapshotStore store = new RateSnapshotStore(10, new CurrencyRegistry());
+        LocalDate date = LocalDate.of(2024, 1, 10);
+        store.publish(snapshot(date.minusDays(1)));
+        store.publish(snapshot(date));
+
+        // When
+        store.evictBefore(date);
+
+        // Then
+        assertEquals(1, store.size());
+        assertTrue(store.get(date).isPresent());
+        assertNull(store.find(date.minusDays(1), "USD"));
+        assertNotNull(store.find(date, "USD"));
+    }
+
+    @Test
+    void testPublish_SameDateAgain_ReplacesSnapshotAndIndex() {
+        // Given
+        RateSnapshotStore store = new RateSnapshotStore(2, new CurrencyRegistry());
+        LocalDate date = LocalDate.of(2024, 1, 10);
+        store.publish(snapshot(date));
+        store.publish(snapshot(date.plusDays(1)));
+
+        // When
+        store.publish(RateSnapshot.of(date, List.of(new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.7100")))));
+        store.publish(snapshot(date.plusDays(2)));
+
+        // Then: republishing made the date the newest, so the next publish evicted the other one
+        assertEquals(new BigDecimal("1.7100"), store.find(date, "USD").getRate());
+        assertFalse(store.get(date.plusDays(1)).isPresent());
+        assertEquals(2, store.size());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.servicea.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateStreamServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+
+    /**
+     * Emitter that records the frames sent to it, optionally blocking until released
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            StringBuilder frame = new StringBuilder();
+            items.forEach(item -> frame.append(item.getData()));
+            frames.add(frame.toString());
+        }
+    }
+
+    private static void awaitFrames(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.frames.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testSubscribe_ReceivesLatestEventThenNewOnes() throws Exception {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        RateStreamService stream = new RateStreamService(objectMapper, () -> emitter, 10, 4);
+        stream.publish(date, 45, false);
+
+        // When
+        stream.subscribe();
+        stream.publish(date.plusDays(1), 46, false);
+        awaitFrames(emitter, 2);
+
+        // Then
+        assertEquals(2, emitter.frames.size());
+        assertTrue(emitter.frames.get(0).contains("\"date\":\"2024-01-15\""));
+        assertTrue(emitter.frames.get(1).contains("id:2"));
+        assertTrue(emitter.frames.get(1).contains("event:rates"));
+        assertEquals(2L, stream.getStats().get("events"));
+    }
+
+    @Test
+    void testPublish_SlowSubscriber_IsDisconnectedWithoutBlockingOthers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        List<SseEmitter> emitters = new CopyOnWriteArrayList<>(List.of(slow, fast));
+        RateStreamService stream = new RateStreamService(objectMapper, () -> emitters.remove(0), 10, 1);
+        stream.subscribe();
+        stream.subscribe();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            stream.publish(date, 45, false);
+            Thread.sleep(20);
+        }
+        awaitFrames(fast, 5);
+
+        // Then
+        assertEquals(5, fast.frames.size());
+        assertEquals(1L, stream.getStats().get("droppedSubscribers"));
+        assertEquals(1, stream.getStats().get("subscribers"));
+        release.countDown();
+    }
+
+    @Test
+    void testSubscribe_OverLimit_Throws() {
+        // Given
+        RateStreamService stream = new RateStreamService(objectMapper,
+            () -> new RecordingEmitter(new CountDownLatch(0)), 1, 4);
+        stream.subscribe();
+
+        // When / Then
+        assertThrows(IllegalStateException.class, stream::subscribe);
+    }
+
+    @Test
+    void testSubscribe_ConcurrentSubscribers_NeverExceedLimit() throws Exception {
+        // Given
+        RateStreamService stream = new RateStreamService(objectMapper,
+            () -> new RecordingEmitter(new CountDownLatch(0)), 5, 4);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    stream.subscribe();
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Over the limit
+                }
+            }));
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertEquals(5, accepted.get());
+        assertEquals(5, stream.getStats().get("subscribers"));
+    }
+
+    @Test
+    void testShutdown_CompletesStreamsAndRejectsNewSubscribers() throws Exception {
+        // Given
+        CountDownLatch completed = new CountDownLatch(2);
+        RateStreamService stream = new RateStreamService(objectMapper, () -> new RecordingEmitter(new CountDownLatch(0)) {
+            @Override
+            public synchronized void complete() {
+                completed.countDown();
+                super.complete();
+            }
+        }, 10, 4);
+        stream.subscribe();
+        stream.subscribe();
+
+        // When
+        stream.shutdown();
+
+        // Then
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, stream.getStats().get("subscribers"));
+        assertThrows(IllegalStateException.class, stream::subscribe);
+        assertDoesNotThrow(() -> stream.publish(date, 45, false));
+    }
+}
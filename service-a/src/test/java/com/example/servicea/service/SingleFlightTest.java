@@ -0,0 +1,71 @@
+package com.example.servicea.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testExecute_ConcurrentCallersForSameKey_RunLoaderOnce() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("2024-01-15", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return 42;
+            })));
+        }
+        while (singleFlight.getExecutions() + singleFlight.getCoalesced() < callers) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<Integer> result : results) {
+            assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(callers - 1, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void testExecute_WhenLoaderFails_PropagatesAndClearsKey() {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        // When / Then
+        assertThrows(IllegalStateException.class,
+            () -> singleFlight.execute("key", () -> { throw new IllegalStateException("boom"); }));
+        assertEquals(0, singleFlight.getInFlight());
+        assertEquals(7, singleFlight.execute("key", () -> 7));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.servicea.service;
+
+import com.example.servicea.model.Currency;
+import com.example.servicea.model.EncodedResponse;
+import com.example.servicea.model.RateSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotResponseEncoderTest {
+
+    private final SnapshotResponseEncoder encoder = new SnapshotResponseEncoder(new ObjectMapper());
+    private final RateSnapshot snapshot = RateSnapshot.of(LocalDate.of(2024, 1, 15), List.of(
+        new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.700000")),
+        new Currency("EUR", "1 Avro", new BigDecimal("1.856400"))));
+
+    @Test
+    void testEncode_Snapshot_EncodedOnceAndGzipMatchesJson() throws Exception {
+        // When
+        EncodedResponse first = encoder.encode(snapshot);
+        EncodedResponse second = encoder.encode(snapshot);
+
+        // Then
+        assertSame(first, second);
+        String json = new String(first.identity(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{\"code\":\"USD\""));
+        assertTrue(json.contains("ABŞ"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.identity(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testEncode_SameContent_SameStrongETagPerVariant() {
+        // Given
+        RateSnapshot copy = RateSnapshot.of(snapshot.getDate(), List.copyOf(snapshot.getCurrencies()));
+        RateSnapshot changed = RateSnapshot.of(snapshot.getDate(), List.of(
+            new Currency("USD", "1 ABŞ dolları", new BigDecimal("1.700100"))));
+
+        // When
+        EncodedResponse encoded = encoder.encode(snapshot);
+
+        // Then
+        assertEquals(encoded.hash(), encoder.encode(copy).hash());
+        assertNotEquals(encoded.hash(), encoder.encode(changed).hash());
+        assertEquals("\"" + encoded.hash() + "\"", encoded.etag(false));
+        assertEquals("\"" + encoded.hash() + "-gz\"", encoded.etag(true));
+        assertEquals(32, encoded.hash().length());
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursQualityAndWildcard() {
+        assertTrue(SnapshotResponseEncoder.acceptsGzip("gzip, deflate, br"));
+        assertTrue(SnapshotResponseEncoder.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(SnapshotResponseEncoder.acceptsGzip("*"));
+        assertFalse(SnapshotResponseEncoder.acceptsGzip("gzip;q=0"));
+        assertFalse(SnapshotResponseEncoder.acceptsGzip("identity"));
+        assertFalse(SnapshotResponseEncoder.acceptsGzip(null));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.serviceb;
 
+import com.example.serviceb.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class ServiceBApplication {
 
     public static void main(String[] args) {
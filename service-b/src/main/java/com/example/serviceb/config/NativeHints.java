@@ -0,0 +1,25 @@
+package com.example.serviceb.config;
+
+import com.example.serviceb.model.ConversionHistory;
+import com.example.serviceb.model.ConversionRequest;
+import com.example.serviceb.model.ConversionResponse;
+import com.example.serviceb.model.SimpleConversionResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for AOT and native-image builds: the Lombok models bound by Jackson and the
+ * JPA entity, registered with their getters, setters and constructors.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                ConversionRequest.class, ConversionResponse.class, SimpleConversionResponse.class,
+                ConversionHistory.class, ConversionHistory.ConversionType.class);
+    }
+}
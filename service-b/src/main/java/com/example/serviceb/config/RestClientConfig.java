@@ -0,0 +1,35 @@
+package com.example.serviceb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class RestClientConfig {
+
+    /**
+     * RestTemplate for Service A on the JDK HTTP client: pooled keep-alive connections, connect and
+     * read timeouts, and with virtual threads enabled the client's own work runs on them too, so a
+     * request thread blocked on Service A costs no platform thread
+     */
+    @Bean
+    public RestTemplate serviceARestTemplate(@Value("${service-a.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                                             @Value("${service-a.read-timeout-ms:10000}") long readTimeoutMillis,
+                                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HttpClient.Builder client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        if (virtualThreads) {
+            client.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client.build());
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.serviceb.controller;
 
+import com.example.serviceb.service.DatabaseBulkhead;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,6 +13,12 @@ import java.util.Map;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    private final DatabaseBulkhead databaseBulkhead;
+
+    public HealthController(DatabaseBulkhead databaseBulkhead) {
+        this.databaseBulkhead = databaseBulkhead;
+    }
+
     @GetMapping
     public Map<String, Object> health() {
         Map<String, Object> response = new HashMap<>();
@@ -19,6 +26,7 @@ public class HealthController {
         response.put("service", "service-b");
         response.put("timestamp", LocalDateTime.now());
         response.put("port", 8082);
+        response.put("database", databaseBulkhead.getStats());
         return response;
     }
 }
@@ -1,6 +1,5 @@
 package com.example.serviceb.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,7 +7,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @NoArgsConstructor
-@AllArgsConstructor
 public class SimpleConversionResponse {
     private BigDecimal result;
     private String message;
@@ -26,9 +26,9 @@ public class ConversionService {
     private static final String SERVICE_A_BASE_URL = "http://localhost:8081";
     
     @Autowired
-    public ConversionService(ConversionHistoryRepository conversionHistoryRepository) {
+    public ConversionService(ConversionHistoryRepository conversionHistoryRepository, RestTemplate restTemplate) {
         this.conversionHistoryRepository = conversionHistoryRepository;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
     }
     
     /**